@@ -1,7 +1,15 @@
 package controller;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.swing.SwingUtilities;
 import model.building.Building;
 import model.building.BuildingInterface;
+import model.building.BuildingReport;
 import model.building.enums.ElevatorSystemStatus;
 import model.scanerzus.Request;
 import views.BuildingView;
@@ -10,10 +18,21 @@ import views.BuildingView;
  * The BuildingController is responsible for managing the interaction between the view and the model
  * in the elevator simulation application. It handles user actions, updates the model accordingly,
  * and refreshes the view to reflect changes in the model.
+ *
+ * <p>In auto-run mode a dedicated scheduler thread steps the model and hands the latest
+ * report to the Event Dispatch Thread. Reports that arrive while the view is still painting
+ * replace each other, so a slow repaint never holds back the simulation. All access to the
+ * model goes through a fair lock shared by both threads.
  */
 public class BuildingController implements BuildingControllerInterface {
   private BuildingInterface model;
   private final BuildingView view;
+  private final ReentrantLock modelLock = new ReentrantLock(true);
+  private final AtomicReference<BuildingReport> pendingReport = new AtomicReference<>();
+  private volatile ElevatorSystemStatus systemStatus;
+  private ScheduledExecutorService scheduler;
+  private Future<?> autoRun;
+  private volatile boolean autoRunning;
 
   /**
    * Constructs a BuildingController with the specified view.
@@ -44,10 +63,11 @@ public class BuildingController implements BuildingControllerInterface {
    */
   public boolean tryInitializeBuilding(int floors, int elevators, int capacity) {
     try {
+      pauseAutoRun();
       model = new Building(floors, elevators, capacity);
       // default to start building
       model.startElevatorSystem();
-      view.updateView(model.getElevatorSystemStatus());
+      view.updateView(report());
       view.setVisible(true);
       return true;
     } catch (IllegalArgumentException e) {
@@ -70,8 +90,138 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public void stepBuilding() {
-    model.triggerElevatorStep();
-    view.updateView(model.getElevatorSystemStatus());
+    modelLock.lock();
+    try {
+      model.triggerElevatorStep();
+    } finally {
+      modelLock.unlock();
+    }
+    view.updateView(report());
+  }
+
+  /**
+   * Starts stepping the model continuously on a scheduler thread. Does nothing if the
+   * model is already auto-running.
+   *
+   * Rates above one step per nanosecond are run at one step per nanosecond.
+   *
+   * @param ticksPerSecond The number of steps per second, or 0 to step as fast as possible.
+   * @throws IllegalArgumentException If ticksPerSecond is negative.
+   */
+  @Override
+  public void startAutoRun(int ticksPerSecond) {
+    if (ticksPerSecond < 0) {
+      throw new IllegalArgumentException("The rate cannot be negative.");
+    }
+    if (autoRunning) {
+      return;
+    }
+    if (scheduler == null) {
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "building-auto-run");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    // the loop below checks the flag, so it is set before the task is handed over
+    autoRunning = true;
+    try {
+      if (ticksPerSecond == 0) {
+        autoRun = scheduler.submit(() -> {
+          while (autoRunning) {
+            autoStep();
+          }
+        });
+      } else {
+        long period = Math.max(1, 1_000_000_000L / ticksPerSecond);
+        autoRun = scheduler.scheduleAtFixedRate(this::autoStep, 0, period, TimeUnit.NANOSECONDS);
+      }
+    } catch (RuntimeException e) {
+      autoRunning = false;
+      throw e;
+    }
+    view.updateView(report());
+  }
+
+  /**
+   * Stops auto-running and shows the final state of the model.
+   */
+  @Override
+  public void pauseAutoRun() {
+    if (!autoRunning) {
+      return;
+    }
+    autoRunning = false;
+    autoRun.cancel(false);
+    autoRun = null;
+    view.updateView(report());
+  }
+
+  /**
+   * Determines whether the model is currently stepped by the scheduler thread.
+   *
+   * @return true if auto-run is active.
+   */
+  @Override
+  public boolean isAutoRunning() {
+    return autoRunning;
+  }
+
+  /**
+   * Takes one step on the scheduler thread and publishes the new state to the view.
+   * A report is only built when the view has taken the previous one, so the simulation
+   * does not pay for reports that would never be painted.
+   * If the model fails, auto-run ends and the error is shown; the exception is rethrown so
+   * the scheduler drops the task.
+   */
+  private void autoStep() {
+    BuildingReport latest = null;
+    modelLock.lock();
+    try {
+      if (!autoRunning) {
+        return;
+      }
+      try {
+        model.triggerElevatorStep();
+      } catch (RuntimeException e) {
+        autoRunning = false;
+        SwingUtilities.invokeLater(() -> {
+          view.showErrorMessage("Auto-run stopped: " + e.getMessage());
+          view.updateView(report());
+        });
+        throw e;
+      }
+      if (pendingReport.get() == null) {
+        latest = model.getElevatorSystemStatus();
+        systemStatus = latest.getSystemStatus();
+      }
+    } finally {
+      modelLock.unlock();
+    }
+    if (latest != null && pendingReport.getAndSet(latest) == null) {
+      SwingUtilities.invokeLater(() -> {
+        BuildingReport report = pendingReport.getAndSet(null);
+        if (report != null && autoRunning) {
+          view.updateView(report);
+        }
+      });
+    }
+  }
+
+  /**
+   * Builds a report of the model under the model lock and remembers its status.
+   *
+   * @return the current report of the model.
+   */
+  private BuildingReport report() {
+    modelLock.lock();
+    try {
+      BuildingReport report = model.getElevatorSystemStatus();
+      systemStatus = report.getSystemStatus();
+      return report;
+    } finally {
+      modelLock.unlock();
+    }
   }
 
   /**
@@ -82,11 +232,46 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public void requestElevator(int from, int to) {
+    runOnModel(() -> model.addRequest(new Request(from, to)));
+  }
+
+  /**
+   * Adds many requests to the model in one batch and refreshes the view once.
+   *
+   * @param from The starting floor of each request.
+   * @param to The destination floor of each request, as long as from.
+   */
+  @Override
+  public void requestElevators(int[] from, int[] to) {
+    runOnModel(() -> {
+      int added = model.addRequests(from, to, from.length);
+      if (added < from.length) {
+        throw new IllegalArgumentException(
+            (from.length - added) + " of " + from.length + " requests were rejected");
+      }
+    });
+  }
+
+  /**
+   * Runs an action on the model under the model lock, then refreshes the view.
+   *
+   * @param action The action to run.
+   */
+  private void runOnModel(Runnable action) {
+    String error = null;
+    modelLock.lock();
     try {
-      model.addRequest(new Request(from, to));
-      view.updateView(model.getElevatorSystemStatus());
+      action.run();
     } catch (IllegalArgumentException | IllegalStateException e) {
-      view.showErrorMessage(e.getMessage());
+      error = e.getMessage();
+    } finally {
+      modelLock.unlock();
+    }
+    // the dialog is modal, so show it only after the lock is released
+    if (error != null) {
+      view.showErrorMessage(error);
+    } else {
+      view.updateView(report());
     }
   }
 
@@ -95,12 +280,7 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public void startBuilding() {
-    try {
-      model.startElevatorSystem();
-      view.updateView(model.getElevatorSystemStatus());
-    } catch (IllegalStateException e) {
-      view.showErrorMessage(e.getMessage());
-    }
+    runOnModel(model::startElevatorSystem);
   }
 
   /**
@@ -108,12 +288,7 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public void stopBuilding() {
-    try {
-      model.stopElevatorSystem();
-      view.updateView(model.getElevatorSystemStatus());
-    } catch (IllegalStateException e) {
-      view.showErrorMessage(e.getMessage());
-    }
+    runOnModel(model::stopElevatorSystem);
   }
 
   /**
@@ -123,7 +298,7 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public boolean canStartBuilding() {
-    return model.getElevatorSystemStatus().getSystemStatus() == ElevatorSystemStatus.outOfService;
+    return systemStatus == ElevatorSystemStatus.outOfService;
   }
 
   /**
@@ -133,7 +308,7 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public boolean canStepBuilding() {
-    ElevatorSystemStatus status = model.getElevatorSystemStatus().getSystemStatus();
+    ElevatorSystemStatus status = systemStatus;
     return status == ElevatorSystemStatus.running || status == ElevatorSystemStatus.stopping;
   }
 
@@ -144,7 +319,7 @@ public class BuildingController implements BuildingControllerInterface {
    */
   @Override
   public boolean canRequestBuilding() {
-    ElevatorSystemStatus status = model.getElevatorSystemStatus().getSystemStatus();
+    ElevatorSystemStatus status = systemStatus;
     return status == ElevatorSystemStatus.running;
   }
 }
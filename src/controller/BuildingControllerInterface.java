@@ -37,6 +37,26 @@ public interface BuildingControllerInterface {
    */
   void stepBuilding();
 
+  /**
+   * Starts advancing the building continuously at the given rate on a background thread,
+   * pushing the latest state to the view as it can keep up.
+   *
+   * @param ticksPerSecond The number of steps per second, or 0 to step as fast as possible.
+   */
+  void startAutoRun(int ticksPerSecond);
+
+  /**
+   * Stops advancing the building continuously.
+   */
+  void pauseAutoRun();
+
+  /**
+   * Determines whether the building is currently advanced continuously.
+   *
+   * @return true if auto-run is active, false otherwise.
+   */
+  boolean isAutoRunning();
+
   /**
    * Requests that an elevator move from one specified floor to another.
    * This method handles the creation and processing of elevator requests.
@@ -46,6 +66,15 @@ public interface BuildingControllerInterface {
    */
   void requestElevator(int from, int to);
 
+  /**
+   * Requests many elevator trips at once. The trips are added to the model in a single
+   * batch and the view is refreshed once afterwards.
+   *
+   * @param from The starting floor of each request.
+   * @param to The destination floor of each request, as long as from.
+   */
+  void requestElevators(int[] from, int[] to);
+
   /**
    * Starts the elevator system within the building, allowing it to begin processing requests
    * and moving elevators.
@@ -0,0 +1,540 @@
+package main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+import model.building.Building;
+import model.building.CollectiveControlDispatch;
+import model.building.DispatchStrategy;
+import model.building.NearestCarDispatch;
+import model.building.RequestTraceReader;
+import model.building.RequestTraceWriter;
+import model.building.TerminalBatchDispatch;
+import model.building.enums.ElevatorEngine;
+import model.scanerzus.TrafficGenerator;
+import model.scanerzus.TrafficProfile;
+
+/**
+ * The HeadlessRunner class is a batch entry point for the elevator simulation. It builds a
+ * building without any user interface, replays a request trace against it and drives the
+ * simulation as fast as the CPU allows, printing summary throughput statistics at the end.
+ * Between requests the building jumps straight to its next event instead of stepping
+ * through every tick.
+ *
+ * <p>Usage: {@code HeadlessRunner [--threads=N] [--dispatch=NAME] <floors> <elevators>
+ * <capacity> <ticks> [trace-file]}. With {@code --threads} the elevators are stepped on
+ * N threads. {@code --dispatch} selects the dispatch strategy: {@code terminal} (the default),
+ * {@code nearest} or {@code collective}. {@code --record=FILE} writes every accepted request
+ * to a binary trace. {@code --traffic=PROFILE:RATE} generates synthetic traffic instead of
+ * reading a trace, with RATE requests per tick on average, and {@code --seed=N} seeds it.
+ * {@code --checkpoint=FILE:EVERY} saves the building to FILE every EVERY ticks and
+ * {@code --restore=FILE} resumes a run from such a checkpoint, skipping the requests of the
+ * trace or generator that arrived before it. {@code --engine=fleet} stores the elevators in
+ * parallel arrays instead of one object per car, see {@link ElevatorEngine}.
+ *
+ * <p>The trace file is either a binary trace written by {@code --record} or a plain text file
+ * with one request per line in the form {@code tick from to}, separated by whitespace or commas.
+ * Lines must be sorted by tick. Blank lines and lines starting with {@code #} are ignored.
+ */
+public class HeadlessRunner {
+  private final Building building;
+  private final long ticks;
+  private long submitted;
+  private long rejected;
+  private Path checkpointFile;
+  private long checkpointInterval;
+
+  /**
+   * Constructs a HeadlessRunner for a new building with the given configuration.
+   *
+   * @param floors The number of floors in the building.
+   * @param elevators The number of elevators in the building.
+   * @param capacity The capacity of each elevator.
+   * @param ticks The number of ticks to simulate.
+   * @throws IllegalArgumentException If the configuration is invalid.
+   */
+  public HeadlessRunner(int floors, int elevators, int capacity, long ticks) {
+    this(floors, elevators, capacity, ticks, new TerminalBatchDispatch());
+  }
+
+  /**
+   * Constructs a HeadlessRunner for a new building with the given configuration and
+   * dispatch strategy.
+   *
+   * @param floors The number of floors in the building.
+   * @param elevators The number of elevators in the building.
+   * @param capacity The capacity of each elevator.
+   * @param ticks The number of ticks to simulate.
+   * @param dispatchStrategy The dispatch strategy of the building.
+   * @throws IllegalArgumentException If the configuration is invalid.
+   */
+  public HeadlessRunner(int floors, int elevators, int capacity, long ticks,
+                        DispatchStrategy dispatchStrategy) {
+    this(new Building(floors, elevators, capacity, dispatchStrategy), ticks);
+  }
+
+  /**
+   * Constructs a HeadlessRunner for a new building with the given configuration, dispatch
+   * strategy and elevator engine.
+   *
+   * @param floors The number of floors in the building.
+   * @param elevators The number of elevators in the building.
+   * @param capacity The capacity of each elevator.
+   * @param ticks The number of ticks to simulate.
+   * @param dispatchStrategy The dispatch strategy of the building.
+   * @param engine The elevator engine of the building.
+   * @throws IllegalArgumentException If the configuration is invalid.
+   */
+  public HeadlessRunner(int floors, int elevators, int capacity, long ticks,
+                        DispatchStrategy dispatchStrategy, ElevatorEngine engine) {
+    this(new Building(floors, elevators, capacity, dispatchStrategy, engine), ticks);
+  }
+
+  /**
+   * Constructs a HeadlessRunner that continues with an existing building, such as one
+   * restored from a checkpoint, up to the given tick.
+   *
+   * @param building The building.
+   * @param ticks The tick to simulate up to.
+   * @throws IllegalArgumentException If ticks is negative.
+   */
+  public HeadlessRunner(Building building, long ticks) {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of ticks cannot be negative.");
+    }
+    this.building = building;
+    this.ticks = ticks;
+  }
+
+  /**
+   * Saves a checkpoint of the building to a file at regular tick intervals while running.
+   * Each checkpoint replaces the previous one once it has been written completely.
+   *
+   * @param file The checkpoint file.
+   * @param interval The number of ticks between checkpoints.
+   * @throws IllegalArgumentException If the interval is not positive.
+   */
+  public void setCheckpoint(Path file, long interval) {
+    if (interval < 1) {
+      throw new IllegalArgumentException("The checkpoint interval must be positive.");
+    }
+    this.checkpointFile = file;
+    this.checkpointInterval = interval;
+  }
+
+  /**
+   * Runs the simulation, feeding requests from the trace at their tick.
+   *
+   * @param trace The reader for the request trace, or null to run without requests.
+   * @throws IOException If the trace cannot be read.
+   */
+  public void run(BufferedReader trace) throws IOException {
+    run(new TextTrace(trace));
+  }
+
+  /**
+   * Runs the simulation, feeding requests from a binary trace at their tick.
+   *
+   * @param trace The binary request trace.
+   * @throws IOException If the trace cannot be read.
+   */
+  public void run(RequestTraceReader trace) throws IOException {
+    run(new TraceSource() {
+      @Override
+      public long peekTick() throws IOException {
+        return trace.peekTick();
+      }
+
+      @Override
+      public void submitNext() throws IOException {
+        trace.next();
+        submit(trace.getStartFloor(), trace.getEndFloor());
+      }
+
+      @Override
+      public void skipNext() throws IOException {
+        trace.next();
+      }
+    });
+  }
+
+  /**
+   * Runs the simulation, feeding requests from a traffic generator at their tick.
+   *
+   * @param traffic The traffic generator.
+   * @throws IOException Never, the generator does not read anything.
+   */
+  public void run(TrafficGenerator traffic) throws IOException {
+    run(new TraceSource() {
+      @Override
+      public long peekTick() {
+        return traffic.peekTick();
+      }
+
+      @Override
+      public void submitNext() {
+        traffic.next();
+        submit(traffic.getStartFloor(), traffic.getEndFloor());
+      }
+
+      @Override
+      public void skipNext() {
+        traffic.next();
+      }
+    });
+  }
+
+  /**
+   * Runs the simulation, feeding requests from a trace source at their tick.
+   *
+   * @param trace The source of requests.
+   * @throws IOException If the trace cannot be read.
+   */
+  private void run(TraceSource trace) throws IOException {
+    long tick = building.getCurrentTick();
+    if (tick == 0) {
+      building.startElevatorSystem();
+    }
+    // a restored building has already seen the requests before its tick
+    while (trace.peekTick() < tick) {
+      trace.skipNext();
+    }
+
+    long firstTick = tick;
+    long start = System.nanoTime();
+    while (tick < ticks) {
+      // feed every request scheduled for this tick before stepping
+      while (trace.peekTick() <= tick) {
+        trace.submitNext();
+      }
+      // jump over the quiet ticks up to the next request in the trace or the next checkpoint
+      long until = Math.min(ticks, Math.max(trace.peekTick(), tick + 1));
+      if (checkpointFile != null) {
+        until = Math.min(until, tick - tick % checkpointInterval + checkpointInterval);
+      }
+      building.triggerElevatorSteps(until - tick);
+      tick = until;
+      if (checkpointFile != null && tick % checkpointInterval == 0) {
+        saveCheckpoint();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    printSummary(tick - firstTick, elapsed);
+  }
+
+  /**
+   * Writes a checkpoint to a temporary file and moves it over the checkpoint file, so a crash
+   * while writing leaves the previous checkpoint intact.
+   *
+   * @throws IOException If the checkpoint cannot be written.
+   */
+  private void saveCheckpoint() throws IOException {
+    Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      building.writeCheckpoint(out);
+    }
+    Files.move(temporary, checkpointFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Restores a building from a checkpoint file.
+   *
+   * @param file The checkpoint file.
+   * @param dispatchStrategy The dispatch strategy of the restored building.
+   * @param engine The elevator engine of the restored building.
+   * @return the building.
+   * @throws IOException If the file cannot be read or is not a checkpoint.
+   */
+  static Building restoreCheckpoint(Path file, DispatchStrategy dispatchStrategy,
+                                    ElevatorEngine engine) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      return Building.readCheckpoint(in, dispatchStrategy, engine);
+    }
+  }
+
+  /**
+   * A source of requests ordered by tick.
+   */
+  private interface TraceSource {
+    /**
+     * Returns the tick of the next request.
+     *
+     * @return the tick, or Long.MAX_VALUE at the end of the trace.
+     * @throws IOException If the trace cannot be read.
+     */
+    long peekTick() throws IOException;
+
+    /**
+     * Submits the next request to the building.
+     *
+     * @throws IOException If the trace cannot be read.
+     */
+    void submitNext() throws IOException;
+
+    /**
+     * Moves past the next request without submitting it.
+     *
+     * @throws IOException If the trace cannot be read.
+     */
+    void skipNext() throws IOException;
+  }
+
+  /**
+   * A text trace, or no trace at all when the reader is null.
+   */
+  private class TextTrace implements TraceSource {
+    private final BufferedReader reader;
+    private long[] next;
+
+    TextTrace(BufferedReader reader) throws IOException {
+      this.reader = reader;
+      this.next = readTraceLine(reader);
+    }
+
+    @Override
+    public long peekTick() {
+      return next == null ? Long.MAX_VALUE : next[0];
+    }
+
+    @Override
+    public void submitNext() throws IOException {
+      submit((int) next[1], (int) next[2]);
+      next = readTraceLine(reader);
+    }
+
+    @Override
+    public void skipNext() throws IOException {
+      next = readTraceLine(reader);
+    }
+  }
+
+  /**
+   * Submits one request to the building, counting it as rejected if the building refuses it.
+   *
+   * @param from The start floor of the request.
+   * @param to The end floor of the request.
+   */
+  private void submit(int from, int to) {
+    submitted++;
+    try {
+      building.addRequest(from, to);
+    } catch (IllegalArgumentException | IllegalStateException e) {
+      rejected++;
+    }
+  }
+
+  /**
+   * Creates a new dispatch strategy from its command line name.
+   *
+   * @param name The name: terminal, nearest or collective.
+   * @return a new strategy instance.
+   * @throws IllegalArgumentException If the name is unknown.
+   */
+  static DispatchStrategy createDispatchStrategy(String name) {
+    switch (name) {
+      case "terminal":
+        return new TerminalBatchDispatch();
+      case "nearest":
+        return new NearestCarDispatch();
+      case "collective":
+        return new CollectiveControlDispatch();
+      default:
+        throw new IllegalArgumentException("Unknown dispatch strategy: " + name);
+    }
+  }
+
+  /**
+   * Creates a traffic generator from its command line description.
+   *
+   * @param description The profile and the mean requests per tick, as PROFILE:RATE.
+   * @param floors The number of floors.
+   * @param seed The seed.
+   * @return a new generator.
+   * @throws IllegalArgumentException If the description is malformed.
+   */
+  static TrafficGenerator createTrafficGenerator(String description, int floors, long seed) {
+    String[] parts = description.split(":");
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Traffic must be given as PROFILE:RATE");
+    }
+    TrafficProfile profile = TrafficProfile.valueOf(parts[0].toUpperCase(Locale.ROOT));
+    return new TrafficGenerator(profile, Double.parseDouble(parts[1]), floors, seed);
+  }
+
+  /**
+   * Reads the next request from the trace.
+   *
+   * @param trace The reader for the request trace, or null.
+   * @return an array holding the tick, start floor and end floor, or null at the end of the trace.
+   * @throws IOException If the trace cannot be read or a line is malformed.
+   */
+  private static long[] readTraceLine(BufferedReader trace) throws IOException {
+    if (trace == null) {
+      return null;
+    }
+    String line;
+    while ((line = trace.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("[\\s,]+");
+      if (fields.length != 3) {
+        throw new IOException("Malformed trace line: " + line);
+      }
+      try {
+        return new long[] {
+            Long.parseLong(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2])
+        };
+      } catch (NumberFormatException e) {
+        throw new IOException("Malformed trace line: " + line, e);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Prints the summary throughput statistics of the run.
+   *
+   * @param ticks The number of ticks simulated by this run.
+   * @param elapsedNanos The wall clock time spent stepping, in nanoseconds.
+   */
+  private void printSummary(long ticks, long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    System.out.printf("Floors:            %d%n", building.getNumberOfFloors());
+    System.out.printf("Elevators:         %d%n", building.getNumberOfElevators());
+    System.out.printf("Capacity:          %d%n", building.getElevatorCapacity());
+    System.out.printf("Ticks:             %d%n", ticks);
+    System.out.printf("Elapsed:           %.3f s%n", seconds);
+    System.out.printf("Ticks/sec:         %.0f%n", ticks / seconds);
+    System.out.printf("Elevator steps/s:  %.0f%n",
+        ticks * (double) building.getNumberOfElevators() / seconds);
+    System.out.printf("Requests:          %d submitted, %d rejected%n", submitted, rejected);
+    System.out.printf("Pending requests:  %d up, %d down%n",
+        building.getUpRequestCount(), building.getDownRequestCount());
+    System.out.printf("Wait ticks:        %s%n", building.getWaitTimeHistogram());
+    System.out.printf("Journey ticks:     %s%n", building.getJourneyTimeHistogram());
+    System.out.printf("Car utilization:   %.1f%%%n", 100 * building.getCarUtilization());
+  }
+
+  /**
+   * The main method that runs a headless simulation from the command line.
+   *
+   * @param args optional flags, floors, elevators, capacity, ticks
+   *             and an optional trace file.
+   */
+  public static void main(String[] args) {
+    int threads = 1;
+    String dispatch = "terminal";
+    String record = null;
+    String traffic = null;
+    long seed = 1;
+    String checkpoint = null;
+    String restore = null;
+    ElevatorEngine engine = ElevatorEngine.OBJECTS;
+    int options = 0;
+    for (; options < args.length && args[options].startsWith("--"); options++) {
+      if (args[options].startsWith("--threads=")) {
+        threads = Integer.parseInt(args[options].substring("--threads=".length()));
+      } else if (args[options].startsWith("--dispatch=")) {
+        dispatch = args[options].substring("--dispatch=".length());
+      } else if (args[options].startsWith("--record=")) {
+        record = args[options].substring("--record=".length());
+      } else if (args[options].startsWith("--traffic=")) {
+        traffic = args[options].substring("--traffic=".length());
+      } else if (args[options].startsWith("--seed=")) {
+        seed = Long.parseLong(args[options].substring("--seed=".length()));
+      } else if (args[options].startsWith("--checkpoint=")) {
+        checkpoint = args[options].substring("--checkpoint=".length());
+      } else if (args[options].startsWith("--restore=")) {
+        restore = args[options].substring("--restore=".length());
+      } else if (args[options].startsWith("--engine=")) {
+        engine = ElevatorEngine.valueOf(
+            args[options].substring("--engine=".length()).toUpperCase(Locale.ROOT));
+      } else {
+        System.err.println("Unknown option: " + args[options]);
+        System.exit(2);
+      }
+    }
+    args = Arrays.copyOfRange(args, options, args.length);
+    if (args.length < 4 || args.length > 5) {
+      System.err.println("Usage: HeadlessRunner [--threads=N] [--dispatch=NAME] [--record=FILE] "
+          + "[--traffic=PROFILE:RATE] [--seed=N] [--checkpoint=FILE:EVERY] [--restore=FILE] "
+          + "[--engine=objects|fleet] "
+          + "<floors> <elevators> <capacity> <ticks> [trace-file]");
+      System.exit(2);
+    }
+    try {
+      HeadlessRunner runner;
+      if (restore == null) {
+        runner = new HeadlessRunner(
+            Integer.parseInt(args[0]),
+            Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]),
+            Long.parseLong(args[3]),
+            createDispatchStrategy(dispatch),
+            engine);
+      } else {
+        Building building =
+            restoreCheckpoint(Paths.get(restore), createDispatchStrategy(dispatch), engine);
+        if (building.getNumberOfFloors() != Integer.parseInt(args[0])
+            || building.getNumberOfElevators() != Integer.parseInt(args[1])
+            || building.getElevatorCapacity() != Integer.parseInt(args[2])) {
+          throw new IllegalArgumentException("The checkpoint is for another building.");
+        }
+        runner = new HeadlessRunner(building, Long.parseLong(args[3]));
+      }
+      if (checkpoint != null) {
+        int separator = checkpoint.lastIndexOf(':');
+        if (separator < 0) {
+          throw new IllegalArgumentException("Checkpoints must be given as FILE:EVERY");
+        }
+        runner.setCheckpoint(Paths.get(checkpoint.substring(0, separator)),
+            Long.parseLong(checkpoint.substring(separator + 1)));
+      }
+      runner.building.setStepParallelism(threads);
+      RequestTraceWriter recorder =
+          record == null ? null : new RequestTraceWriter(Paths.get(record));
+      runner.building.setTraceWriter(recorder);
+      try {
+        if (traffic != null) {
+          runner.run(createTrafficGenerator(traffic, runner.building.getNumberOfFloors(), seed));
+        } else if (args.length == 5) {
+          Path path = Paths.get(args[4]);
+          if (RequestTraceReader.isTrace(path)) {
+            try (RequestTraceReader trace = new RequestTraceReader(path)) {
+              runner.run(trace);
+            }
+          } else {
+            try (BufferedReader trace = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+              runner.run(trace);
+            }
+          }
+        } else {
+          runner.run((BufferedReader) null);
+        }
+      } finally {
+        if (recorder != null) {
+          recorder.close();
+        }
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,333 @@
+package main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import model.building.Building;
+import model.building.LatencyHistogram;
+import model.scanerzus.TrafficGenerator;
+import model.scanerzus.TrafficProfile;
+
+/**
+ * The ParameterSweepRunner class runs one headless simulation for every combination of
+ * floors, elevators, capacity and traffic rate in the given ranges. The simulations run in
+ * parallel on a fixed pool of threads, each on its own building with its own seeded traffic,
+ * and one CSV row per configuration is written as soon as that configuration finishes.
+ * The rows therefore arrive in completion order; the {@code index} column gives the
+ * position of the configuration in the sweep.
+ *
+ * <p>Usage: {@code ParameterSweepRunner [--threads=N] [--dispatch=NAME] [--traffic=PROFILE]
+ * [--seed=N] [--output=FILE] <floors> <elevators> <capacity> <rates> <ticks>}. Each range is
+ * a single value, a comma separated list or {@code FROM:TO[:STEP]} with TO included.
+ * {@code --threads} defaults to the number of processors, {@code --dispatch} to
+ * {@code terminal} and {@code --traffic} to {@code uniform}. The seed of each configuration
+ * is derived from {@code --seed} and its index, so a sweep is reproducible whatever the
+ * number of threads.
+ */
+public class ParameterSweepRunner {
+  private static final String HEADER = "index,floors,elevators,capacity,rate,seed,ticks,"
+      + "submitted,pending,wait_mean,wait_p50,wait_p90,wait_p99,wait_max,"
+      + "journey_mean,journey_p50,journey_p90,journey_p99,journey_max,utilization,elapsed_ms";
+
+  private final String dispatch;
+  private final TrafficProfile profile;
+  private final long ticks;
+
+  /**
+   * Constructs a ParameterSweepRunner.
+   *
+   * @param dispatch The name of the dispatch strategy of every building.
+   * @param profile The traffic profile of every building.
+   * @param ticks The number of ticks to simulate per configuration.
+   * @throws IllegalArgumentException If ticks is negative or the strategy is unknown.
+   */
+  public ParameterSweepRunner(String dispatch, TrafficProfile profile, long ticks) {
+    if (ticks < 0) {
+      throw new IllegalArgumentException("The number of ticks cannot be negative.");
+    }
+    // fail before any simulation starts
+    HeadlessRunner.createDispatchStrategy(dispatch);
+    this.dispatch = dispatch;
+    this.profile = profile;
+    this.ticks = ticks;
+  }
+
+  /**
+   * Runs every configuration on the given number of threads and writes one CSV row per
+   * configuration as it finishes. A configuration that fails is reported on standard error
+   * and the sweep goes on.
+   *
+   * @param configurations The configurations to run.
+   * @param threads The number of threads.
+   * @param out The CSV output; flushed after every row.
+   * @return the number of configurations that failed.
+   * @throws IOException If the output cannot be written.
+   * @throws InterruptedException If the thread is interrupted while waiting for results.
+   */
+  public int run(List<Configuration> configurations, int threads, Writer out)
+      throws IOException, InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    int failed = 0;
+    try {
+      CompletionService<String> completion = new ExecutorCompletionService<>(executor);
+      for (Configuration configuration : configurations) {
+        completion.submit(() -> simulate(configuration));
+      }
+      out.write(HEADER);
+      out.write('\n');
+      out.flush();
+      for (int i = 0; i < configurations.size(); i++) {
+        try {
+          out.write(completion.take().get());
+          out.write('\n');
+          out.flush();
+        } catch (ExecutionException e) {
+          System.err.println("Configuration failed: " + e.getCause().getMessage());
+          failed++;
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return failed;
+  }
+
+  /**
+   * Simulates one configuration on the calling thread.
+   *
+   * @param configuration The configuration.
+   * @return the CSV row of the configuration, without a line break.
+   */
+  private String simulate(Configuration configuration) {
+    long start = System.nanoTime();
+    Building building = new Building(configuration.floors, configuration.elevators,
+        configuration.capacity, HeadlessRunner.createDispatchStrategy(dispatch));
+    TrafficGenerator traffic = new TrafficGenerator(
+        profile, configuration.rate, configuration.floors, configuration.seed);
+    building.startElevatorSystem();
+    long submitted = 0;
+    long tick = 0;
+    while (tick < ticks) {
+      while (traffic.peekTick() <= tick) {
+        traffic.next();
+        building.addRequest(traffic.getStartFloor(), traffic.getEndFloor());
+        submitted++;
+      }
+      long until = Math.min(ticks, Math.max(traffic.peekTick(), tick + 1));
+      building.triggerElevatorSteps(until - tick);
+      tick = until;
+    }
+    long elapsed = System.nanoTime() - start;
+
+    StringBuilder row = new StringBuilder(160);
+    row.append(configuration.index).append(',')
+        .append(configuration.floors).append(',')
+        .append(configuration.elevators).append(',')
+        .append(configuration.capacity).append(',')
+        .append(configuration.rate).append(',')
+        .append(configuration.seed).append(',')
+        .append(ticks).append(',')
+        .append(submitted).append(',')
+        .append(building.getUpRequestCount() + building.getDownRequestCount()).append(',');
+    appendHistogram(row, building.getWaitTimeHistogram());
+    row.append(',');
+    appendHistogram(row, building.getJourneyTimeHistogram());
+    row.append(',').append(String.format(Locale.ROOT, "%.4f", building.getCarUtilization()));
+    row.append(',').append(elapsed / 1_000_000);
+    return row.toString();
+  }
+
+  /**
+   * Appends the mean, p50, p90, p99 and maximum of a histogram as CSV fields.
+   *
+   * @param row The row to append to.
+   * @param histogram The histogram.
+   */
+  private static void appendHistogram(StringBuilder row, LatencyHistogram histogram) {
+    row.append(String.format(Locale.ROOT, "%.2f", histogram.getMean())).append(',')
+        .append(histogram.getValueAtPercentile(50)).append(',')
+        .append(histogram.getValueAtPercentile(90)).append(',')
+        .append(histogram.getValueAtPercentile(99)).append(',')
+        .append(histogram.getMax());
+  }
+
+  /**
+   * Builds the cross product of the ranges, in order of floors, elevators, capacity and
+   * rate, with the rate varying fastest.
+   *
+   * @param floors The numbers of floors.
+   * @param elevators The numbers of elevators.
+   * @param capacities The capacities.
+   * @param rates The traffic rates.
+   * @param seed The seed the configuration seeds are derived from.
+   * @return the configurations.
+   */
+  static List<Configuration> crossProduct(int[] floors, int[] elevators, int[] capacities,
+                                          double[] rates, long seed) {
+    List<Configuration> configurations = new ArrayList<>();
+    for (int floor : floors) {
+      for (int elevator : elevators) {
+        for (int capacity : capacities) {
+          for (double rate : rates) {
+            int index = configurations.size();
+            // golden ratio increments spread the seeds of neighbouring configurations
+            long configurationSeed = seed + index * 0x9E3779B97F4A7C15L;
+            configurations.add(new Configuration(
+                index, floor, elevator, capacity, rate, configurationSeed));
+          }
+        }
+      }
+    }
+    return configurations;
+  }
+
+  /**
+   * Parses an integer range.
+   *
+   * @param range A single value, a comma separated list or FROM:TO[:STEP].
+   * @return the values.
+   * @throws IllegalArgumentException If the range is malformed.
+   */
+  static int[] parseIntRange(String range) {
+    double[] values = parseRange(range);
+    int[] result = new int[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = (int) values[i];
+      if (result[i] != values[i]) {
+        throw new IllegalArgumentException("Not a whole number in range: " + range);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Parses a range of numbers.
+   *
+   * @param range A single value, a comma separated list or FROM:TO[:STEP].
+   * @return the values.
+   * @throws IllegalArgumentException If the range is malformed.
+   */
+  static double[] parseRange(String range) {
+    try {
+      if (range.contains(":")) {
+        String[] parts = range.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+          throw new IllegalArgumentException("Ranges must be given as FROM:TO[:STEP]");
+        }
+        double from = Double.parseDouble(parts[0]);
+        double to = Double.parseDouble(parts[1]);
+        double step = parts.length == 3 ? Double.parseDouble(parts[2]) : 1;
+        if (step <= 0 || to < from) {
+          throw new IllegalArgumentException("Empty range: " + range);
+        }
+        // counting steps avoids drifting past TO with fractional steps
+        int count = (int) Math.floor((to - from) / step + 1e-9) + 1;
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+          values[i] = from + i * step;
+        }
+        return values;
+      }
+      return Arrays.stream(range.split(",")).mapToDouble(Double::parseDouble).toArray();
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Malformed range: " + range, e);
+    }
+  }
+
+  /**
+   * One point of the sweep.
+   */
+  static final class Configuration {
+    final int index;
+    final int floors;
+    final int elevators;
+    final int capacity;
+    final double rate;
+    final long seed;
+
+    Configuration(int index, int floors, int elevators, int capacity, double rate, long seed) {
+      this.index = index;
+      this.floors = floors;
+      this.elevators = elevators;
+      this.capacity = capacity;
+      this.rate = rate;
+      this.seed = seed;
+    }
+  }
+
+  /**
+   * The main method that runs a parameter sweep from the command line.
+   *
+   * @param args optional flags, then the floors, elevators, capacity and rate ranges and the
+   *             number of ticks.
+   */
+  public static void main(String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    String dispatch = "terminal";
+    String traffic = "uniform";
+    long seed = 1;
+    String output = null;
+    int options = 0;
+    for (; options < args.length && args[options].startsWith("--"); options++) {
+      if (args[options].startsWith("--threads=")) {
+        threads = Integer.parseInt(args[options].substring("--threads=".length()));
+      } else if (args[options].startsWith("--dispatch=")) {
+        dispatch = args[options].substring("--dispatch=".length());
+      } else if (args[options].startsWith("--traffic=")) {
+        traffic = args[options].substring("--traffic=".length());
+      } else if (args[options].startsWith("--seed=")) {
+        seed = Long.parseLong(args[options].substring("--seed=".length()));
+      } else if (args[options].startsWith("--output=")) {
+        output = args[options].substring("--output=".length());
+      } else {
+        System.err.println("Unknown option: " + args[options]);
+        System.exit(2);
+      }
+    }
+    args = Arrays.copyOfRange(args, options, args.length);
+    if (args.length != 5) {
+      System.err.println("Usage: ParameterSweepRunner [--threads=N] [--dispatch=NAME] "
+          + "[--traffic=PROFILE] [--seed=N] [--output=FILE] "
+          + "<floors> <elevators> <capacity> <rates> <ticks>");
+      System.exit(2);
+    }
+    try {
+      if (threads < 1) {
+        throw new IllegalArgumentException("The number of threads must be at least 1.");
+      }
+      ParameterSweepRunner runner = new ParameterSweepRunner(dispatch,
+          TrafficProfile.valueOf(traffic.toUpperCase(Locale.ROOT)), Long.parseLong(args[4]));
+      List<Configuration> configurations = crossProduct(parseIntRange(args[0]),
+          parseIntRange(args[1]), parseIntRange(args[2]), parseRange(args[3]), seed);
+      int failed;
+      try (Writer out = output == null
+          ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+          : Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+        failed = runner.run(configurations, threads, out);
+      }
+      if (failed > 0) {
+        System.err.println(failed + " of " + configurations.size() + " configurations failed");
+        System.exit(1);
+      }
+    } catch (IllegalArgumentException | IOException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.exit(1);
+    }
+  }
+}
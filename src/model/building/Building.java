@@ -1,31 +1,100 @@
 package model.building;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import model.building.enums.Direction;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import model.building.enums.ElevatorEngine;
 import model.building.enums.ElevatorSystemStatus;
 import model.elevator.Elevator;
+import model.elevator.ElevatorFleet;
 import model.elevator.ElevatorInterface;
 import model.elevator.ElevatorReport;
+import model.elevator.FloorBitSet;
+import model.elevator.PassengerEventSink;
 import model.scanerzus.Request;
 
 /**
  * Represents a model.building with a specified number of floors and elevators.
  * This class manages the operation of elevators within the model.building,
  * including handling requests to move between floors.
+ *
+ * <p>A model.building is stepped by one thread. Only {@link #submitRequest(Request)},
+ * {@link #setInboxCapacity(int)} and {@link #getDroppedRequestCount()} may be called from
+ * other threads.
  */
 public class Building implements BuildingInterface {
+  private static final int CHECKPOINT_MAGIC = 0x454C5643; // "ELVC"
+  private static final int CHECKPOINT_VERSION = 2;
+  private static final int DEFAULT_INBOX_CAPACITY = 1 << 16;
 
   private final int numberOfFloors;
   private final int numberOfElevators;
   private final int elevatorCapacity;
   private final List<ElevatorInterface> elevators;
   private ElevatorSystemStatus elevatorStatus;
-  private final List<Request> upRequests;
-  private final List<Request> downRequests;
+  private final RequestQueue upRequests;
+  private final RequestQueue downRequests;
+  private final DispatchStrategy dispatchStrategy;
+  private final ElevatorEngine engine;
+  /**
+   * The storage of every model.elevator with the FLEET engine, null with OBJECTS.
+   */
+  private final ElevatorFleet fleet;
+  private long currentTick;
+  private ParallelStepper stepper;
+  private RequestTraceWriter traceWriter;
+  private final LatencyHistogram waitTimes = new LatencyHistogram();
+  private final LatencyHistogram journeyTimes = new LatencyHistogram();
+  // the last report and the versions it was built from, reused while nothing changes
+  private BuildingReport lastReport;
+  private final long[] reportVersions;
+  private long reportUpVersion;
+  private long reportDownVersion;
+  // the listeners, replaced on every change, and what they last saw of each car
+  private BuildingListener[] listeners = new BuildingListener[0];
+  private final long[] seenVersions;
+  private final int[] seenFloors;
+  private final boolean[] seenDoorsClosed;
+  private final int[] seenWaiting;
+  private final long[] seenStops;
+  private final long[] currentStops;
+  /**
+   * Requests submitted from other threads, moved into the queues at the next tick boundary
+   * by the thread that steps the model.building.
+   */
+  private final ConcurrentLinkedQueue<Request> inbox = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inboxSize = new AtomicInteger();
+  private volatile int inboxCapacity = DEFAULT_INBOX_CAPACITY;
+  private final AtomicLong droppedRequests = new AtomicLong();
+  private final PassengerEventSink passengerEvents = new PassengerEventSink() {
+    @Override
+    public void pickedUp(Request request) {
+      request.stampPickup(currentTick);
+      if (request.getArrivalTick() >= 0) {
+        waitTimes.record(currentTick - request.getArrivalTick());
+      }
+    }
+
+    @Override
+    public void droppedOff(Request request) {
+      request.stampDropOff(currentTick);
+      if (request.getArrivalTick() >= 0) {
+        journeyTimes.record(currentTick - request.getArrivalTick());
+      }
+    }
+  };
 
   /**
-   * Constructs a new Building instance with the specified parameters.
+   * Constructs a new Building instance with the specified parameters, dispatching
+   * requests with a {@link TerminalBatchDispatch}.
    *
    * @param numberOfFloors The total number of floors in the model.building.
    * @param numberOfElevators The total number of elevators in the model.building.
@@ -33,9 +102,54 @@ public class Building implements BuildingInterface {
    * @throws IllegalArgumentException If any parameter is out of the expected range.
    */
   public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity) {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, new TerminalBatchDispatch());
+  }
+
+  /**
+   * Constructs a new Building instance with the specified parameters and dispatch strategy.
+   *
+   * @param numberOfFloors The total number of floors in the model.building.
+   * @param numberOfElevators The total number of elevators in the model.building.
+   * @param elevatorCapacity The maximum capacity of each model.elevator in the model.building.
+   * @param dispatchStrategy The strategy assigning requests to elevators, used by this
+   *                         model.building only.
+   * @throws IllegalArgumentException If any parameter is out of the expected range.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  DispatchStrategy dispatchStrategy) {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, dispatchStrategy,
+        ElevatorEngine.OBJECTS);
+  }
+
+  /**
+   * Constructs a new Building instance with the specified parameters, dispatch strategy and
+   * model.elevator engine. Both engines behave the same; the FLEET engine stores the
+   * elevators in parallel arrays and steps them in one loop, which pays off for fleets of
+   * thousands of cars.
+   *
+   * @param numberOfFloors The total number of floors in the model.building.
+   * @param numberOfElevators The total number of elevators in the model.building.
+   * @param elevatorCapacity The maximum capacity of each model.elevator in the model.building.
+   * @param dispatchStrategy The strategy assigning requests to elevators, used by this
+   *                         model.building only.
+   * @param engine The way the elevators are stored and stepped.
+   * @throws IllegalArgumentException If any parameter is out of the expected range.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  DispatchStrategy dispatchStrategy, ElevatorEngine engine) {
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("The dispatch strategy cannot be null.");
+    }
+    if (engine == null) {
+      throw new IllegalArgumentException("The model.elevator engine cannot be null.");
+    }
     if (numberOfFloors < 2) {
       throw new IllegalArgumentException("The number of floors must be at least 2.");
     }
+    if (numberOfFloors > RequestQueue.MAX_FLOORS) {
+      throw new IllegalArgumentException(
+          "The number of floors must be at most " + RequestQueue.MAX_FLOORS + ".");
+    }
     if (numberOfElevators < 1) {
       throw new IllegalArgumentException("The number of elevators must be at least 1.");
     }
@@ -48,12 +162,29 @@ public class Building implements BuildingInterface {
     this.elevatorCapacity = elevatorCapacity;
     this.elevators = new ArrayList<>();
     this.elevatorStatus = ElevatorSystemStatus.outOfService; // default status
-    this.upRequests = new ArrayList<>();
-    this.downRequests = new ArrayList<>();
+    this.upRequests = new RequestQueue(numberOfFloors);
+    this.downRequests = new RequestQueue(numberOfFloors);
+    this.dispatchStrategy = dispatchStrategy;
+    this.engine = engine;
+    this.reportVersions = new long[numberOfElevators];
+    this.seenVersions = new long[numberOfElevators];
+    this.seenFloors = new int[numberOfElevators];
+    this.seenDoorsClosed = new boolean[numberOfElevators];
+    this.seenWaiting = new int[numberOfElevators];
+    this.seenStops = new long[numberOfElevators * FloorBitSet.wordCount(numberOfFloors)];
+    this.currentStops = FloorBitSet.create(numberOfFloors);
 
+    if (engine == ElevatorEngine.FLEET) {
+      // the views of the cars stand in for model.elevator objects
+      this.fleet = new ElevatorFleet(numberOfElevators, numberOfFloors, elevatorCapacity);
+      elevators.addAll(fleet.getCars());
+      return;
+    }
+    this.fleet = null;
     // Create elevators and add them to the list
     for (int i = 0; i < numberOfElevators; i++) {
-      ElevatorInterface elevator = new Elevator(numberOfFloors, elevatorCapacity);
+      // ids are allocated per model.building, so concurrent buildings stay reproducible
+      ElevatorInterface elevator = new Elevator(i, numberOfFloors, elevatorCapacity);
       elevators.add(elevator);
     }
   }
@@ -65,45 +196,311 @@ public class Building implements BuildingInterface {
    * @return true if the request is successfully added, false otherwise.
    * @throws IllegalStateException If the model.elevator system is not accepting requests.
    * @throws IllegalArgumentException If the request is invalid.
+   * @throws UncheckedIOException If the request cannot be written to the trace.
    */
   @Override
   public boolean addRequest(Request request) throws IllegalStateException {
+    validateRequest(request);
+
+    // Add the request to the appropriate list based on the direction
+    switch (this.elevatorStatus) {
+      case running:
+        enqueueRequest(request);
+        return true;
+      case outOfService:
+      case stopping:
+        throw new IllegalStateException("Elevator system is not accepting requests");
+      default:
+        // defensive coding
+        throw new IllegalStateException(
+            "Unexpected model.elevator system status: " + elevatorStatus);
+    }
+  }
+
+  /**
+   * Adds a new request given by its floors. The request waits in the queues without an
+   * object of its own; a {@link Request} is made for it when it is dispatched.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @return true if the request is successfully added.
+   * @throws IllegalStateException If the model.elevator system is not accepting requests.
+   * @throws IllegalArgumentException If the floors are not a valid trip.
+   * @throws UncheckedIOException If the request cannot be written to the trace.
+   */
+  @Override
+  public boolean addRequest(int startFloor, int endFloor) throws IllegalStateException {
+    validateTrip(startFloor, endFloor);
+    if (this.elevatorStatus != ElevatorSystemStatus.running) {
+      throw new IllegalStateException("Elevator system is not accepting requests");
+    }
+    enqueueRequest(startFloor, endFloor);
+    return true;
+  }
+
+  /**
+   * Adds many requests in one call. Each request is checked once; invalid requests are
+   * skipped instead of throwing, and the valid ones are appended to the queues in order,
+   * stamped with the current tick. Nothing is added while the system is not running.
+   *
+   * @param requests The requests; null elements count as rejected.
+   * @return the number of requests added, the rest were rejected.
+   * @throws UncheckedIOException If a request cannot be written to the trace.
+   */
+  @Override
+  public int addRequests(Collection<? extends Request> requests) {
+    if (this.elevatorStatus != ElevatorSystemStatus.running) {
+      return 0;
+    }
+    // a single pass; the queues double as they grow rather than guessing each share
+    int added = 0;
+    for (Request request : requests) {
+      if (request != null && isValidTrip(request.getStartFloor(), request.getEndFloor())) {
+        enqueueRequest(request);
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Adds many requests given as parallel arrays of start and end floors. No {@link Request}
+   * is created for an entry until it is dispatched. Each entry is checked once; entries that
+   * are not a valid trip are skipped instead of throwing. Nothing is added while the system is not running.
+   *
+   * @param startFloors The start floor of each request.
+   * @param endFloors The end floor of each request.
+   * @param count The number of entries to read from both arrays.
+   * @return the number of requests added, the rest were rejected.
+   * @throws IllegalArgumentException If either array holds fewer than count entries.
+   * @throws UncheckedIOException If a request cannot be written to the trace.
+   */
+  @Override
+  public int addRequests(int[] startFloors, int[] endFloors, int count) {
+    if (count < 0 || count > startFloors.length || count > endFloors.length) {
+      throw new IllegalArgumentException("Both arrays must hold " + count + " entries");
+    }
+    if (this.elevatorStatus != ElevatorSystemStatus.running) {
+      return 0;
+    }
+    int added = 0;
+    for (int i = 0; i < count; i++) {
+      if (isValidTrip(startFloors[i], endFloors[i])) {
+        enqueueRequest(startFloors[i], endFloors[i]);
+        added++;
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Checks whether a trip runs between two different floors of the model.building.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @return true if both floors exist and differ.
+   */
+  private boolean isValidTrip(int startFloor, int endFloor) {
+    return startFloor >= 0 && startFloor < numberOfFloors
+        && endFloor >= 0 && endFloor < numberOfFloors
+        && startFloor != endFloor;
+  }
+
+  /**
+   * Submits a request from any thread. The request is validated at once and placed in a
+   * lock-free inbox, so producers never wait for the thread that steps the model.building.
+   * The inbox is drained at the next tick boundary, where each request is queued and
+   * stamped exactly as if {@link #addRequest(Request)} had been called there. Requests
+   * drained while the system is not running are dropped and counted.
+   *
+   * @param request A {@link Request} object containing the start and end floors.
+   * @return true if the request was taken into the inbox, false if the inbox is full.
+   * @throws IllegalArgumentException If the request is invalid.
+   */
+  @Override
+  public boolean submitRequest(Request request) {
+    validateRequest(request);
+    if (inboxSize.incrementAndGet() > inboxCapacity) {
+      inboxSize.decrementAndGet();
+      return false;
+    }
+    inbox.offer(request);
+    return true;
+  }
+
+  /**
+   * Sets how many submitted requests may wait in the inbox for the next tick. Once it is
+   * full {@link #submitRequest(Request)} returns false instead of blocking, so producers
+   * that outpace the model.building see back pressure rather than unbounded memory use.
+   *
+   * @param capacity The capacity of the inbox.
+   * @throws IllegalArgumentException If capacity is less than 1.
+   */
+  public void setInboxCapacity(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("The inbox capacity must be at least 1.");
+    }
+    this.inboxCapacity = capacity;
+  }
+
+  /**
+   * Returns the number of submitted requests that were dropped because the model.elevator
+   * system was not running when the inbox was drained.
+   *
+   * @return the number of dropped requests.
+   */
+  public long getDroppedRequestCount() {
+    return droppedRequests.get();
+  }
+
+  /**
+   * Returns the number of requests waiting to go up, without building a report.
+   *
+   * @return the number of queued up requests.
+   */
+  public int getUpRequestCount() {
+    return upRequests.size();
+  }
+
+  /**
+   * Returns the number of requests waiting to go down, without building a report.
+   *
+   * @return the number of queued down requests.
+   */
+  public int getDownRequestCount() {
+    return downRequests.size();
+  }
+
+  /**
+   * Moves every submitted request from the inbox into the queues. Called by the stepping
+   * thread at each tick boundary, before anything is dispatched.
+   */
+  private void drainInbox() {
+    Request request;
+    while ((request = inbox.poll()) != null) {
+      inboxSize.decrementAndGet();
+      if (this.elevatorStatus == ElevatorSystemStatus.running) {
+        enqueueRequest(request);
+      } else {
+        droppedRequests.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Checks that a request is non-null and travels between two valid floors. The floors
+   * never change, so this is safe to call from any thread.
+   *
+   * @param request The request.
+   * @throws IllegalArgumentException If the request is invalid.
+   */
+  private void validateRequest(Request request) {
     // defensive coding
     if (request == null) {
       throw new IllegalArgumentException("Request cannot be null");
     }
+    validateTrip(request.getStartFloor(), request.getEndFloor());
+  }
 
-    if (request.getStartFloor() < 0 || request.getStartFloor() >= numberOfFloors) {
+  /**
+   * Checks that a trip runs between two different floors of the model.building.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @throws IllegalArgumentException If the trip is invalid.
+   */
+  private void validateTrip(int startFloor, int endFloor) {
+    if (startFloor < 0 || startFloor >= numberOfFloors) {
       throw new IllegalArgumentException(
           "Start floor must be between 0 and " + (numberOfFloors - 1));
     }
-    if (request.getEndFloor() < 0 || request.getEndFloor() >= numberOfFloors) {
+    if (endFloor < 0 || endFloor >= numberOfFloors) {
       throw new IllegalArgumentException(
           "End floor must be between 0 and " + (numberOfFloors - 1));
     }
-    if (request.getStartFloor() == request.getEndFloor()) {
+    if (startFloor == endFloor) {
       throw new IllegalArgumentException("Start floor and end floor cannot be the same");
     }
+  }
 
-    // Add the request to the appropriate list based on the direction
-    switch (this.elevatorStatus) {
-      case running:
-        if (request.getStartFloor() < request.getEndFloor()) {
-          upRequests.add(request);
-        } else {
-          downRequests.add(request);
-        }
-        return true;
-      case outOfService:
-      case stopping:
-        throw new IllegalStateException("Elevator system is not accepting requests");
-      default:
-        // defensive coding
-        throw new IllegalStateException(
-            "Unexpected model.elevator system status: " + elevatorStatus);
+  /**
+   * Queues a valid request by direction, stamps its arrival and records it to the trace.
+   *
+   * @param request The request.
+   * @throws UncheckedIOException If the request cannot be written to the trace.
+   */
+  private void enqueueRequest(Request request) {
+    request.stampArrival(currentTick);
+    if (request.getStartFloor() < request.getEndFloor()) {
+      upRequests.add(request);
+    } else {
+      downRequests.add(request);
+    }
+    recordRequest(request.getStartFloor(), request.getEndFloor());
+    publishRequestQueued(request.getStartFloor(), request.getEndFloor());
+  }
+
+  /**
+   * Queues a valid trip by direction as a packed request arriving now and records it to
+   * the trace.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @throws UncheckedIOException If the request cannot be written to the trace.
+   */
+  private void enqueueRequest(int startFloor, int endFloor) {
+    if (startFloor < endFloor) {
+      upRequests.add(startFloor, endFloor, currentTick);
+    } else {
+      downRequests.add(startFloor, endFloor, currentTick);
+    }
+    recordRequest(startFloor, endFloor);
+    publishRequestQueued(startFloor, endFloor);
+  }
+
+  /**
+   * Tells the listeners about a queued request.
+   *
+   * @param startFloor The start floor of the request.
+   * @param endFloor The end floor of the request.
+   */
+  private void publishRequestQueued(int startFloor, int endFloor) {
+    BuildingListener[] listeners = this.listeners;
+    for (int i = 0; i < listeners.length; i++) {
+      listeners[i].requestQueued(startFloor, endFloor);
     }
   }
 
+  /**
+   * Writes an accepted request to the trace, if one is being recorded.
+   *
+   * @param startFloor The start floor of the request.
+   * @param endFloor The end floor of the request.
+   * @throws UncheckedIOException If the trace cannot be written.
+   */
+  private void recordRequest(int startFloor, int endFloor) {
+    if (traceWriter == null) {
+      return;
+    }
+    try {
+      traceWriter.record(currentTick, startFloor, endFloor);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Records every request accepted from now on, with the tick it arrived at, to a
+   * binary trace. Replaying the trace with a {@link RequestTraceReader} against a new
+   * model.building with the same configuration reproduces the run. The caller closes
+   * the writer.
+   *
+   * @param traceWriter The trace to record to, or null to stop recording.
+   */
+  public void setTraceWriter(RequestTraceWriter traceWriter) {
+    this.traceWriter = traceWriter;
+  }
+
   /**
    * Starts the model.elevator system, allowing it to accept and process requests.
    *
@@ -121,7 +518,8 @@ public class Building implements BuildingInterface {
         for (ElevatorInterface elevator : elevators) {
           elevator.start();
         }
-        this.elevatorStatus = ElevatorSystemStatus.running;
+        setElevatorStatus(ElevatorSystemStatus.running);
+        publishCarChanges();
         return true;
       default:
         // defensive coding
@@ -141,36 +539,200 @@ public class Building implements BuildingInterface {
       return;
     }
 
-    this.elevatorStatus = ElevatorSystemStatus.stopping;
+    setElevatorStatus(ElevatorSystemStatus.stopping);
     for (ElevatorInterface elevator : elevators) {
       elevator.takeOutOfService();
     }
     // empty all requests
     clearRequests();
+    publishCarChanges();
+  }
+
+  /**
+   * Changes the status of the model.elevator system and tells the listeners.
+   *
+   * @param status The new status.
+   */
+  private void setElevatorStatus(ElevatorSystemStatus status) {
+    ElevatorSystemStatus previous = this.elevatorStatus;
+    this.elevatorStatus = status;
+    BuildingListener[] listeners = this.listeners;
+    for (int i = 0; i < listeners.length; i++) {
+      listeners[i].statusChanged(previous, status);
+    }
   }
 
   /**
    * Retrieves the current status of the model.elevator system, including each
-   * model.elevator's state.
+   * model.elevator's state. Reports are immutable, so while no model.elevator, queue or the
+   * system status has changed the previous report is returned again instead of a copy.
    *
    * @return A {@link BuildingReport} object containing detailed system status information.
    */
   @Override
   public BuildingReport getElevatorSystemStatus() {
+    if (isLastReportCurrent()) {
+      return lastReport;
+    }
     ElevatorReport[] elevatorReports = new ElevatorReport[elevators.size()];
     for (int i = 0; i < elevators.size(); i++) {
       elevatorReports[i] = elevators.get(i).getElevatorStatus();
+      reportVersions[i] = elevatorReports[i].getVersion();
     }
+    reportUpVersion = upRequests.getVersion();
+    reportDownVersion = downRequests.getVersion();
 
-    return new BuildingReport(
+    lastReport = new BuildingReport(
         numberOfFloors,
         numberOfElevators,
         elevatorCapacity,
         elevatorReports,
-        upRequests,
-        downRequests,
+        upRequests.toList(),
+        downRequests.toList(),
         elevatorStatus
     );
+    return lastReport;
+  }
+
+  /**
+   * Checks whether the last report still describes the model.building.
+   *
+   * @return true if nothing has changed since the last report was built.
+   */
+  private boolean isLastReportCurrent() {
+    if (lastReport == null
+        || lastReport.getSystemStatus() != elevatorStatus
+        || reportUpVersion != upRequests.getVersion()
+        || reportDownVersion != downRequests.getVersion()) {
+      return false;
+    }
+    for (int i = 0; i < elevators.size(); i++) {
+      if (reportVersions[i] != elevators.get(i).getVersion()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Registers a listener for the changes of the model.building. The changes of the cars
+   * are found after each tick by comparing every car whose version moved with what was last
+   * seen of it; without listeners none of this is done.
+   *
+   * @param listener The listener.
+   * @throws IllegalArgumentException If the listener is null.
+   */
+  @Override
+  public void addListener(BuildingListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("The listener cannot be null.");
+    }
+    if (listeners.length == 0) {
+      // nothing was watched so far, start from what the cars look like now
+      for (int i = 0; i < elevators.size(); i++) {
+        seeCar(i);
+      }
+    }
+    BuildingListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+    grown[listeners.length] = listener;
+    listeners = grown;
+  }
+
+  /**
+   * Removes a listener registered with {@link #addListener(BuildingListener)}.
+   *
+   * @param listener The listener.
+   * @return true if the listener was registered.
+   */
+  @Override
+  public boolean removeListener(BuildingListener listener) {
+    for (int i = 0; i < listeners.length; i++) {
+      if (listeners[i] == listener) {
+        BuildingListener[] shrunk = new BuildingListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, shrunk, 0, i);
+        System.arraycopy(listeners, i + 1, shrunk, i, shrunk.length - i);
+        listeners = shrunk;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Remembers the current state of a car as the one the listeners last saw.
+   *
+   * @param car The index of the car.
+   */
+  private void seeCar(int car) {
+    ElevatorInterface elevator = elevators.get(car);
+    seenVersions[car] = elevator.getVersion();
+    seenFloors[car] = elevator.getCurrentFloor();
+    seenDoorsClosed[car] = elevator.isDoorClosed();
+    elevator.copyFloorRequests(seenStops, car * currentStops.length);
+  }
+
+  /**
+   * Tells the listeners how every car changed since it was last seen. Cars whose version
+   * has not moved are skipped without a look at their state.
+   */
+  private void publishCarChanges() {
+    if (listeners.length == 0) {
+      return;
+    }
+    for (int car = 0; car < elevators.size(); car++) {
+      ElevatorInterface elevator = elevators.get(car);
+      if (elevator.getVersion() != seenVersions[car]) {
+        publishCarChanges(car, elevator);
+      }
+    }
+  }
+
+  /**
+   * Tells the listeners how a car changed since it was last seen, then remembers it.
+   *
+   * @param car The index of the car.
+   * @param elevator The car.
+   */
+  private void publishCarChanges(int car, ElevatorInterface elevator) {
+    BuildingListener[] listeners = this.listeners;
+    int floor = elevator.getCurrentFloor();
+    if (floor != seenFloors[car]) {
+      for (int i = 0; i < listeners.length; i++) {
+        listeners[i].carMoved(car, seenFloors[car], floor);
+      }
+    }
+    boolean doorClosed = elevator.isDoorClosed();
+    if (doorClosed != seenDoorsClosed[car]) {
+      for (int i = 0; i < listeners.length; i++) {
+        if (doorClosed) {
+          listeners[i].doorClosed(car, floor);
+        } else {
+          listeners[i].doorOpened(car, floor);
+        }
+      }
+    }
+    elevator.copyFloorRequests(currentStops, 0);
+    int offset = car * currentStops.length;
+    for (int word = 0; word < currentStops.length; word++) {
+      long seen = seenStops[offset + word];
+      long current = currentStops[word];
+      for (long added = current & ~seen; added != 0; added &= added - 1) {
+        int stop = (word << 6) + Long.numberOfTrailingZeros(added);
+        for (int i = 0; i < listeners.length; i++) {
+          listeners[i].stopAdded(car, stop);
+        }
+      }
+      for (long cleared = seen & ~current; cleared != 0; cleared &= cleared - 1) {
+        int stop = (word << 6) + Long.numberOfTrailingZeros(cleared);
+        for (int i = 0; i < listeners.length; i++) {
+          listeners[i].stopCleared(car, stop);
+        }
+      }
+      seenStops[offset + word] = current;
+    }
+    seenVersions[car] = elevator.getVersion();
+    seenFloors[car] = floor;
+    seenDoorsClosed[car] = doorClosed;
   }
 
   /**
@@ -181,11 +743,10 @@ public class Building implements BuildingInterface {
    */
   @Override
   public void takeElevatorOutOfService(int elevatorId) {
-    for (ElevatorInterface elevator : elevators) {
-      if (elevator.getElevatorId() == elevatorId) {
-        elevator.takeOutOfService();
-        break;
-      }
+    // elevator ids are their index in the model.building
+    if (elevatorId >= 0 && elevatorId < elevators.size()) {
+      elevators.get(elevatorId).takeOutOfService();
+      publishCarChanges();
     }
   }
 
@@ -198,12 +759,11 @@ public class Building implements BuildingInterface {
     for (ElevatorInterface elevator : elevators) {
       elevator.takeOutOfService();
     }
+    publishCarChanges();
   }
 
   /**
-   * Distributes requests to elevators based on their current floors and directions.
-   * Requests for upward movement are assigned to elevators on the ground floor,
-   * while requests for downward movement are assigned to elevators on the top floor.
+   * Distributes requests to elevators with the dispatch strategy of the model.building.
    */
   private void distributeRequests() {
     // If there are no requests, return
@@ -216,57 +776,48 @@ public class Building implements BuildingInterface {
       return;
     }
 
-    // main flow: distribute upRequest on top floor and downRequest on bottom floor
-    for (ElevatorInterface elevator : elevators) {
-      if (elevator.getCurrentFloor() == 0 && !this.upRequests.isEmpty()) {
-        processElevatorRequests(elevator, this.upRequests, Direction.UP);
-      } else if (elevator.getCurrentFloor() == numberOfFloors - 1 && !this.downRequests.isEmpty()) {
-        processElevatorRequests(elevator, this.downRequests, Direction.DOWN);
+    if (listeners.length == 0) {
+      dispatchStrategy.distributeRequests(elevators, upRequests, downRequests);
+      return;
+    }
+    // dispatch appends to the waiting passengers of a car, the new ones were assigned now
+    for (int i = 0; i < elevators.size(); i++) {
+      seenWaiting[i] = elevators.get(i).getWaitingCount();
+    }
+    dispatchStrategy.distributeRequests(elevators, upRequests, downRequests);
+    BuildingListener[] listeners = this.listeners;
+    for (int car = 0; car < elevators.size(); car++) {
+      ElevatorInterface elevator = elevators.get(car);
+      int waiting = elevator.getWaitingCount();
+      // a car handed a new trip drops the passengers it had, all of them are new
+      int first = waiting < seenWaiting[car] ? 0 : seenWaiting[car];
+      for (int j = first; j < waiting; j++) {
+        Request request = elevator.getWaitingRequest(j);
+        for (int i = 0; i < listeners.length; i++) {
+          listeners[i].requestAssigned(car, request);
+        }
       }
     }
+    publishCarChanges();
   }
 
   /**
-   * Processes requests for a given model.elevator, based on its direction.
-   * Requests that match the model.elevator's current direction are processed.
+   * Returns the way the elevators of the model.building are stored and stepped.
    *
-   * @param elevator The model.elevator to process requests for.
-   * @param requests The list of requests to process.
-   * @param direction The direction of the requests.
+   * @return the model.elevator engine.
    */
-  private void processElevatorRequests(
-       ElevatorInterface elevator,
-       List<Request> requests,
-       Direction direction
-  ) {
-    // if model.elevator is going in the same direction as the request
-    if (elevator.getDirection() == direction) {
-      // retrieve requests for model.elevator
-      List<Request> toProcess = getRequestsForElevator(requests);
-      try {
-        // process requests with model.elevator and remove from main list
-        elevator.processRequests(toProcess);
-        requests.removeAll(toProcess);
-      } catch (IllegalStateException e) {
-        System.out.println("Elevator is not accepting requests." + e.getMessage());
-      }
-    }
+  @Override
+  public ElevatorEngine getElevatorEngine() {
+    return this.engine;
   }
 
   /**
-   * Retrieves a subset of requests for an model.elevator, ensuring the number of
-   * requests does not exceed the model.elevator's capacity.
+   * Returns the strategy that assigns requests to elevators.
    *
-   * @param requests The list of requests to parse.
-   * @return A list of requests for the model.elevator, constrained by its capacity.
+   * @return the dispatch strategy.
    */
-  private List<Request> getRequestsForElevator(List<Request> requests) {
-    List<Request> requestsForElevator = new ArrayList<>();
-    // parse requests via capacity
-    for (int i = 0; i < Math.min((requests.size()), this.elevatorCapacity); i++) {
-      requestsForElevator.add(requests.get(i));
-    }
-    return requestsForElevator;
+  public DispatchStrategy getDispatchStrategy() {
+    return this.dispatchStrategy;
   }
 
   /**
@@ -276,25 +827,210 @@ public class Building implements BuildingInterface {
    */
   @Override
   public void triggerElevatorStep() {
+    drainInbox();
+    this.currentTick++;
     // Two cases for step: running and stopping
     if (this.elevatorStatus == ElevatorSystemStatus.running) {
       // Distribute requests to elevators
       distributeRequests();
       // Step through each model.elevator
-      for (ElevatorInterface elevator : elevators) {
-        elevator.step();
-      }
+      stepElevators(1);
+      publishCarChanges();
     } else if (this.elevatorStatus == ElevatorSystemStatus.stopping) {
       // Step through each model.elevator to go back down to ground floor
-      for (ElevatorInterface elevator : elevators) {
-        elevator.step();
-      }
+      stepElevators(1);
+      publishCarChanges();
       // Consider special case when on the ground floor
       // convert stopping to out of service if all elevators are on ground floor
       checkAndStopElevatorSystem();
     }
   }
 
+  /**
+   * Steps every model.elevator, on the parallel stepper if one is configured, then
+   * stamps the passengers picked up and dropped off with the current tick.
+   *
+   * @param ticks The number of ticks to advance each model.elevator by; 1 is a plain step.
+   */
+  private void stepElevators(int ticks) {
+    if (stepper != null) {
+      stepper.advance(elevators, ticks);
+    } else if (fleet != null) {
+      if (ticks == 1) {
+        fleet.step();
+      } else {
+        fleet.advance(ticks);
+      }
+      fleet.drainPassengerEvents(passengerEvents);
+      return;
+    } else if (ticks == 1) {
+      // indexed loops, an iterator per loop would be garbage on every tick
+      for (int i = 0; i < elevators.size(); i++) {
+        elevators.get(i).step();
+      }
+    } else {
+      for (int i = 0; i < elevators.size(); i++) {
+        elevators.get(i).advance(ticks);
+      }
+    }
+    // each model.elevator buffered its own events, collect them on this thread
+    for (int i = 0; i < elevators.size(); i++) {
+      elevators.get(i).drainPassengerEvents(passengerEvents);
+    }
+  }
+
+  /**
+   * Returns the histogram of wait times, from the arrival of a request to the pickup of
+   * its passenger, in ticks. The histogram is updated as the model.building steps.
+   *
+   * @return the wait time histogram.
+   */
+  public LatencyHistogram getWaitTimeHistogram() {
+    return waitTimes;
+  }
+
+  /**
+   * Returns the histogram of journey times, from the arrival of a request to the drop-off
+   * of its passenger, in ticks. The histogram is updated as the model.building steps.
+   *
+   * @return the journey time histogram.
+   */
+  public LatencyHistogram getJourneyTimeHistogram() {
+    return journeyTimes;
+  }
+
+  /**
+   * Returns how much of the capacity of the cars was used while they travelled: the
+   * passengers on board summed over every floor travelled by every car, divided by the
+   * floors travelled times the capacity of a car. Empty runs, such as returning to the
+   * ground floor, count as unused capacity.
+   *
+   * @return the utilization between 0 and 1, or 0 if no car has moved yet.
+   */
+  public double getCarUtilization() {
+    long floors = 0;
+    long passengers = 0;
+    for (int i = 0; i < elevators.size(); i++) {
+      floors += elevators.get(i).getFloorsTravelled();
+      passengers += elevators.get(i).getPassengerFloors();
+    }
+    return floors == 0 ? 0 : passengers / ((double) floors * elevatorCapacity);
+  }
+
+  /**
+   * Sets the number of threads used to step the elevators. With more than one thread the
+   * elevators are stepped in parallel after requests have been dispatched; the outcome is
+   * the same as stepping them in order. Parallel stepping pays off for large fleets only.
+   *
+   * @param parallelism The number of threads, 1 to step on the calling thread.
+   * @throws IllegalArgumentException If parallelism is less than 1.
+   */
+  public void setStepParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The step parallelism must be at least 1.");
+    }
+    if (stepper != null) {
+      if (stepper.getParallelism() == parallelism) {
+        return;
+      }
+      stepper.shutdown();
+      stepper = null;
+    }
+    if (parallelism > 1) {
+      stepper = new ParallelStepper(parallelism);
+    }
+  }
+
+  /**
+   * Returns the number of threads used to step the elevators.
+   *
+   * @return The step parallelism, 1 when stepping on the calling thread.
+   */
+  public int getStepParallelism() {
+    return stepper == null ? 1 : stepper.getParallelism();
+  }
+
+  /**
+   * Advances the model.building by the given number of ticks. The result is the same as
+   * calling {@link #triggerElevatorStep()} that many times, but stretches where every
+   * model.elevator only counts down a timer or passes floors are jumped over in one go.
+   *
+   * @param ticks The number of ticks to advance.
+   */
+  @Override
+  public void triggerElevatorSteps(long ticks) {
+    while (ticks > 0) {
+      ticks -= advanceToNextEvent(ticks);
+    }
+  }
+
+  /**
+   * Advances the model.building to the next tick where any model.elevator changes more than
+   * a timer or its floor, or where requests can be dispatched, but by no more than the
+   * given number of ticks.
+   *
+   * @param maxTicks The maximum number of ticks to advance.
+   * @return the number of ticks advanced.
+   */
+  @Override
+  public long advanceToNextEvent(long maxTicks) {
+    if (maxTicks <= 0) {
+      return 0;
+    }
+    drainInbox();
+    // nothing steps while the system is out of service
+    if (this.elevatorStatus == ElevatorSystemStatus.outOfService) {
+      this.currentTick += maxTicks;
+      return maxTicks;
+    }
+    if (this.elevatorStatus == ElevatorSystemStatus.running && canDistributeRequests()) {
+      triggerElevatorStep();
+      return 1;
+    }
+
+    long skip = Math.min(maxTicks, Integer.MAX_VALUE);
+    if (fleet != null) {
+      skip = Math.min(skip, fleet.getTicksToNextEvent());
+    } else {
+      for (int i = 0; i < elevators.size(); i++) {
+        skip = Math.min(skip, elevators.get(i).getTicksToNextEvent());
+      }
+    }
+    if (skip <= 1) {
+      triggerElevatorStep();
+      return 1;
+    }
+
+    this.currentTick += skip;
+    stepElevators((int) skip);
+    publishCarChanges();
+    checkAndStopElevatorSystem();
+    return skip;
+  }
+
+  /**
+   * Checks whether {@link #distributeRequests()} would hand requests to any model.elevator
+   * right now.
+   *
+   * @return true if a waiting request can be dispatched on this tick.
+   */
+  private boolean canDistributeRequests() {
+    if (upRequests.isEmpty() && downRequests.isEmpty()) {
+      return false;
+    }
+    return dispatchStrategy.canDistributeRequests(elevators, upRequests, downRequests);
+  }
+
+  /**
+   * Returns the number of ticks the model.building has been stepped through.
+   *
+   * @return The current tick.
+   */
+  @Override
+  public long getCurrentTick() {
+    return this.currentTick;
+  }
+
   /**
    * Checks if all elevators have returned to the ground floor and stops the
    * model.elevator system if so. This method is called during the stopping phase of the system.
@@ -302,14 +1038,14 @@ public class Building implements BuildingInterface {
   private void checkAndStopElevatorSystem() {
     if (this.elevatorStatus == ElevatorSystemStatus.stopping) {
       boolean allOnGround = true;
-      for (ElevatorInterface elevator : this.elevators) {
-        if (elevator.getCurrentFloor() != 0) {
+      for (int i = 0; i < this.elevators.size(); i++) {
+        if (this.elevators.get(i).getCurrentFloor() != 0) {
           allOnGround = false;
           break;
         }
       }
       if (allOnGround) {
-        this.elevatorStatus = ElevatorSystemStatus.outOfService;
+        setElevatorStatus(ElevatorSystemStatus.outOfService);
       }
     }
   }
@@ -321,6 +1057,9 @@ public class Building implements BuildingInterface {
   public void clearRequests() {
     this.upRequests.clear();
     this.downRequests.clear();
+    while (this.inbox.poll() != null) {
+      this.inboxSize.decrementAndGet();
+    }
   }
 
   /**
@@ -333,6 +1072,105 @@ public class Building implements BuildingInterface {
     System.out.printf(report.toString());
   }
 
+  /**
+   * Writes the full state of the model.building to a binary checkpoint: its configuration,
+   * system status, current tick, queued requests, latency histograms and the state of every
+   * model.elevator. The size of the checkpoint is proportional to that state. The dispatch
+   * strategy, step parallelism and trace writer are settings of the running model.building
+   * and are not saved.
+   *
+   * @param out The stream to write to.
+   * @throws IOException If the stream cannot be written.
+   */
+  public void writeCheckpoint(DataOutput out) throws IOException {
+    // submitted requests belong to the current tick, queue them so they are saved
+    drainInbox();
+    out.writeInt(CHECKPOINT_MAGIC);
+    out.writeInt(CHECKPOINT_VERSION);
+    out.writeInt(numberOfFloors);
+    out.writeInt(numberOfElevators);
+    out.writeInt(elevatorCapacity);
+    out.writeByte(elevatorStatus.ordinal());
+    out.writeLong(currentTick);
+    upRequests.writeTo(out);
+    downRequests.writeTo(out);
+    waitTimes.writeTo(out);
+    journeyTimes.writeTo(out);
+    for (ElevatorInterface elevator : elevators) {
+      elevator.writeState(out);
+    }
+  }
+
+  /**
+   * Restores a model.building from a checkpoint written by {@link #writeCheckpoint}, using
+   * a {@link TerminalBatchDispatch}. Stepping the restored model.building continues exactly
+   * where the saved one stood.
+   *
+   * @param in The stream to read from.
+   * @return the restored model.building.
+   * @throws IOException If the stream cannot be read or is not a valid checkpoint.
+   */
+  public static Building readCheckpoint(DataInput in) throws IOException {
+    return readCheckpoint(in, new TerminalBatchDispatch());
+  }
+
+  /**
+   * Restores a model.building from a checkpoint written by {@link #writeCheckpoint}.
+   * Stepping the restored model.building continues exactly where the saved one stood,
+   * provided the same kind of dispatch strategy is used.
+   *
+   * @param in The stream to read from.
+   * @param dispatchStrategy The dispatch strategy of the restored model.building.
+   * @return the restored model.building.
+   * @throws IOException If the stream cannot be read or is not a valid checkpoint.
+   */
+  public static Building readCheckpoint(DataInput in, DispatchStrategy dispatchStrategy)
+      throws IOException {
+    return readCheckpoint(in, dispatchStrategy, ElevatorEngine.OBJECTS);
+  }
+
+  /**
+   * Restores a model.building from a checkpoint written by {@link #writeCheckpoint}, using
+   * the given dispatch strategy and model.elevator engine. Checkpoints do not depend on the
+   * engine, so a run saved with one engine can continue on the other.
+   *
+   * @param in The stream to read from.
+   * @param dispatchStrategy The dispatch strategy of the restored model.building.
+   * @param engine The model.elevator engine of the restored model.building.
+   * @return the restored model.building.
+   * @throws IOException If the stream cannot be read or is not a valid checkpoint.
+   */
+  public static Building readCheckpoint(DataInput in, DispatchStrategy dispatchStrategy,
+                                        ElevatorEngine engine) throws IOException {
+    if (in.readInt() != CHECKPOINT_MAGIC) {
+      throw new IOException("Not a model.building checkpoint.");
+    }
+    if (in.readInt() != CHECKPOINT_VERSION) {
+      throw new IOException("Unsupported model.building checkpoint version.");
+    }
+    Building building;
+    try {
+      building = new Building(in.readInt(), in.readInt(), in.readInt(), dispatchStrategy,
+          engine);
+    } catch (IllegalArgumentException e) {
+      throw new IOException("The checkpoint holds an invalid configuration.", e);
+    }
+    int status = in.readByte();
+    if (status < 0 || status >= ElevatorSystemStatus.values().length) {
+      throw new IOException("The checkpoint holds an invalid system status.");
+    }
+    building.elevatorStatus = ElevatorSystemStatus.values()[status];
+    building.currentTick = in.readLong();
+    building.upRequests.readFrom(in);
+    building.downRequests.readFrom(in);
+    building.waitTimes.readFrom(in);
+    building.journeyTimes.readFrom(in);
+    for (ElevatorInterface elevator : building.elevators) {
+      elevator.readState(in);
+    }
+    return building;
+  }
+
   /**
    * Returns the total number of floors in the model.building.
    *
@@ -1,6 +1,8 @@
 package model.building;
 
+import java.util.Collection;
 import java.util.List;
+import model.building.enums.ElevatorEngine;
 import model.building.enums.ElevatorSystemStatus;
 import model.elevator.ElevatorInterface;
 import model.scanerzus.Request;
@@ -23,6 +25,49 @@ public interface BuildingInterface {
    */
   boolean addRequest(Request request) throws IllegalStateException;
 
+  /**
+   * Adds a new request given by its start and end floors, without a {@link Request}
+   * object.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @return true if the request is successfully added.
+   * @throws IllegalStateException If the model.elevator system is not accepting requests.
+   * @throws IllegalArgumentException If the floors are not a valid trip.
+   */
+  boolean addRequest(int startFloor, int endFloor) throws IllegalStateException;
+
+  /**
+   * Adds many requests in one call. Invalid requests are skipped instead of throwing.
+   *
+   * @param requests The requests.
+   * @return the number of requests added; 0 if the system is not accepting requests.
+   */
+  int addRequests(Collection<? extends Request> requests);
+
+  /**
+   * Adds many requests given as parallel arrays of start and end floors. Invalid entries
+   * are skipped instead of throwing.
+   *
+   * @param startFloors The start floor of each request.
+   * @param endFloors The end floor of each request.
+   * @param count The number of entries to read from both arrays.
+   * @return the number of requests added; 0 if the system is not accepting requests.
+   * @throws IllegalArgumentException If either array holds fewer than count entries.
+   */
+  int addRequests(int[] startFloors, int[] endFloors, int count);
+
+  /**
+   * Submits a request from any thread without waiting for the model.building to finish a
+   * step. The request is taken into the system at the next tick boundary.
+   *
+   * @param request A {@link Request} object containing the start and end floors.
+   * @return true if the request is accepted for the next tick, false if the model.building
+   *     cannot take more requests before the next tick.
+   * @throws IllegalArgumentException If the request is invalid.
+   */
+  boolean submitRequest(Request request);
+
   /**
    * Starts the model.elevator system, allowing it to accept and process requests.
    *
@@ -45,6 +90,24 @@ public interface BuildingInterface {
    */
   BuildingReport getElevatorSystemStatus();
 
+  /**
+   * Registers a listener for the changes of the model.building, an alternative to polling
+   * {@link #getElevatorSystemStatus()} after every step. The listener is called on the
+   * thread stepping the model.building.
+   *
+   * @param listener The listener.
+   * @throws IllegalArgumentException If the listener is null.
+   */
+  void addListener(BuildingListener listener);
+
+  /**
+   * Removes a listener registered with {@link #addListener(BuildingListener)}.
+   *
+   * @param listener The listener.
+   * @return true if the listener was registered.
+   */
+  boolean removeListener(BuildingListener listener);
+
   /**
    * Takes a specific model.elevator out of service. The model.elevator will complete
    * its current task and then stop operating.
@@ -66,6 +129,32 @@ public interface BuildingInterface {
    */
   void triggerElevatorStep();
 
+  /**
+   * Advances the model.building by the given number of ticks. The result is the same as
+   * calling {@link #triggerElevatorStep()} that many times, but stretches where every
+   * model.elevator only counts down a timer or passes floors are jumped over in one go.
+   *
+   * @param ticks The number of ticks to advance.
+   */
+  void triggerElevatorSteps(long ticks);
+
+  /**
+   * Advances the model.building to its next event, but by no more than the given number
+   * of ticks. The state afterwards is the same as after that many calls to
+   * {@link #triggerElevatorStep()}.
+   *
+   * @param maxTicks The maximum number of ticks to advance.
+   * @return the number of ticks advanced.
+   */
+  long advanceToNextEvent(long maxTicks);
+
+  /**
+   * Returns the number of ticks the model.building has been stepped through.
+   *
+   * @return The current tick.
+   */
+  long getCurrentTick();
+
   /**
    * Clears all pending requests for the model.elevator system.
    */
@@ -110,4 +199,11 @@ public interface BuildingInterface {
    * @return A list of all elevators in the model.building.
    */
   List<ElevatorInterface> getElevators();
+
+  /**
+   * Gets the way the elevators of the model.building are stored and stepped.
+   *
+   * @return the model.elevator engine.
+   */
+  ElevatorEngine getElevatorEngine();
 }
@@ -0,0 +1,91 @@
+package model.building;
+
+import model.building.enums.ElevatorSystemStatus;
+import model.scanerzus.Request;
+
+/**
+ * Receives the changes of a model.building as they happen, see
+ * {@link BuildingInterface#addListener(BuildingListener)}. Every method does nothing by
+ * default, so a listener only overrides the changes it follows. Cars are given by their
+ * index in {@link BuildingInterface#getElevators()}.
+ * The changes of a car are found by comparing it with what was last seen of it, and only
+ * for cars whose version moved, so a tick where nothing happens costs a listener nothing.
+ * A stretch jumped over by {@link BuildingInterface#advanceToNextEvent(long)} shows up as
+ * one move.
+ */
+public interface BuildingListener {
+
+  /**
+   * Called when the model.elevator system changes status.
+   *
+   * @param previous the status before.
+   * @param current  the status now.
+   */
+  default void statusChanged(ElevatorSystemStatus previous, ElevatorSystemStatus current) {
+  }
+
+  /**
+   * Called when a request is queued, at the tick it arrived at.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   */
+  default void requestQueued(int startFloor, int endFloor) {
+  }
+
+  /**
+   * Called when the dispatch strategy hands a queued request to a car.
+   *
+   * @param car     the index of the car.
+   * @param request the request.
+   */
+  default void requestAssigned(int car, Request request) {
+  }
+
+  /**
+   * Called when a car is on another floor than it was last seen on.
+   *
+   * @param car       the index of the car.
+   * @param fromFloor the floor it was on.
+   * @param toFloor   the floor it is on now.
+   */
+  default void carMoved(int car, int fromFloor, int toFloor) {
+  }
+
+  /**
+   * Called when the door of a car opens.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor of the car.
+   */
+  default void doorOpened(int car, int floor) {
+  }
+
+  /**
+   * Called when the door of a car closes.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor of the car.
+   */
+  default void doorClosed(int car, int floor) {
+  }
+
+  /**
+   * Called when a car gets a stop at a floor.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor of the stop.
+   */
+  default void stopAdded(int car, int floor) {
+  }
+
+  /**
+   * Called when a car no longer stops at a floor, because it served the stop or its stops
+   * were cleared.
+   *
+   * @param car   the index of the car.
+   * @param floor the floor of the stop.
+   */
+  default void stopCleared(int car, int floor) {
+  }
+}
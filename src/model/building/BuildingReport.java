@@ -1,5 +1,6 @@
 package model.building;
 
+import java.util.Collections;
 import java.util.List;
 import model.building.enums.ElevatorSystemStatus;
 import model.elevator.ElevatorReport;
@@ -8,6 +9,8 @@ import model.scanerzus.Request;
 
 /**
  * This is the reporting class for the model.building.
+ * The request lists are unmodifiable snapshots and the elevator reports are immutable,
+ * so a report can be read on another thread while the model.building keeps stepping.
  */
 public class BuildingReport {
   int numFloors;
@@ -45,8 +48,8 @@ public class BuildingReport {
     this.numElevators = numElevators;
     this.elevatorCapacity = elevatorCapacity;
     this.elevatorReports = elevatorsReports;
-    this.upRequests = upRequests;
-    this.downRequests = downRequests;
+    this.upRequests = Collections.unmodifiableList(upRequests);
+    this.downRequests = Collections.unmodifiableList(downRequests);
     this.systemStatus = systemStatus;
   }
 
@@ -0,0 +1,91 @@
+package model.building;
+
+import java.util.List;
+import model.building.enums.Direction;
+import model.elevator.ElevatorInterface;
+import model.scanerzus.Request;
+
+/**
+ * Directional collective control. Elevators setting off from the ends of the shaft take
+ * batches as in {@link TerminalBatchDispatch}; the requests left over are then added as
+ * stops to elevators already travelling in their direction that have not yet passed their
+ * start floor, so passengers do not wait for a full round trip.
+ *
+ * <p>For every floor with waiting requests the model.elevator with the shortest estimated
+ * arrival, counting the stops it makes on the way, takes them oldest first while it has room
+ * on its run. When the quickest model.elevator is one waiting at the end of the shaft the
+ * requests are left in the queue for its next batch, so they keep their place in line.
+ */
+public class CollectiveControlDispatch extends TerminalBatchDispatch {
+
+  /**
+   * Hands out the terminal batches, then offers the remaining requests to the elevators
+   * on their way.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   */
+  @Override
+  public void distributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    super.distributeRequests(elevators, upRequests, downRequests);
+    dispatchInFlight(elevators, upRequests, Direction.UP);
+    dispatchInFlight(elevators, downRequests, Direction.DOWN);
+  }
+
+  /**
+   * Any passing model.elevator may pick up a waiting request, so this is true whenever
+   * requests are waiting.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   * @return true if any request is waiting.
+   */
+  @Override
+  public boolean canDistributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    return !upRequests.isEmpty() || !downRequests.isEmpty();
+  }
+
+  /**
+   * Offers the waiting requests of one direction to the elevators passing their start floor.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param requests The queue of requests to dispatch.
+   * @param direction The direction of the requests.
+   */
+  private void dispatchInFlight(
+      List<ElevatorInterface> elevators,
+      RequestQueue requests,
+      Direction direction
+  ) {
+    int floors = elevators.get(0).getMaxFloor();
+    for (int floor = 0; floor < floors && !requests.isEmpty(); floor++) {
+      Request request;
+      while ((request = requests.peekFirstAtFloor(floor)) != null) {
+        ElevatorInterface best = null;
+        int bestTicks = Integer.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+          ElevatorInterface elevator = elevators.get(i);
+          int ticks = elevator.getEstimatedTicksTo(floor, direction);
+          if (ticks >= 0 && ticks < bestTicks) {
+            best = elevator;
+            bestTicks = ticks;
+          }
+        }
+        if (best == null || !best.addStopRequest(request)) {
+          break;
+        }
+        requests.pollFirstAtFloor(floor);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package model.building;
+
+import java.util.List;
+import model.elevator.ElevatorInterface;
+
+/**
+ * Decides which model.elevator serves which waiting request. The model.building calls
+ * {@link #distributeRequests} once per tick while it is running and has waiting requests,
+ * before the elevators are stepped. A strategy hands requests to elevators through
+ * {@link ElevatorInterface#processRequests(List)} or
+ * {@link ElevatorInterface#addStopRequest(model.scanerzus.Request)} and removes from the
+ * queues exactly the requests it handed out; whatever it leaves stays queued for a later tick.
+ *
+ * <p>A strategy may keep scratch state between calls, so every model.building needs its
+ * own instance.
+ */
+public interface DispatchStrategy {
+
+  /**
+   * Hands waiting requests to elevators.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   */
+  void distributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests);
+
+  /**
+   * Checks whether {@link #distributeRequests} would hand any request to an model.elevator
+   * right now. The model.building only jumps over ticks where this is false, so the answer
+   * may err on the side of true but never on the side of false.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   * @return true if a waiting request may be dispatched on this tick.
+   */
+  boolean canDistributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests);
+}
@@ -0,0 +1,208 @@
+package model.building;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A fixed-memory histogram of non-negative latencies in ticks, bucketed on a log scale.
+ * Values below 32 are counted exactly. Above that every power of two is split into 16 equal
+ * buckets, so a percentile is never off by more than 1/16 (about 6%) of its value, and the
+ * whole range of long fits in fewer than a thousand counters. Recording never allocates.
+ *
+ * <p>Percentiles are reported as the upper bound of their bucket, capped at the largest value
+ * recorded, so they never understate a latency. The histogram is not thread safe.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final long[] counts = new long[BUCKETS];
+  private long count;
+  private long sum;
+  private long max;
+
+  /**
+   * Records one latency.
+   *
+   * @param value The latency in ticks.
+   * @throws IllegalArgumentException If the value is negative.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("A latency cannot be negative.");
+    }
+    counts[bucketOf(value)]++;
+    count++;
+    sum += value;
+    if (value > max) {
+      max = value;
+    }
+  }
+
+  /**
+   * Returns the number of latencies recorded.
+   *
+   * @return the number of latencies.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the largest latency recorded.
+   *
+   * @return the largest latency, or 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the mean of the latencies recorded.
+   *
+   * @return the mean, or 0 if nothing was recorded.
+   */
+  public double getMean() {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Returns the latency at or below which the given percentage of the latencies fall.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return the latency, or 0 if nothing was recorded.
+   * @throws IllegalArgumentException If the percentile is out of range.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100.");
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return Math.min(max, highestValueOf(bucket));
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Adds every latency recorded in another histogram to this one.
+   *
+   * @param other The other histogram.
+   */
+  public void add(LatencyHistogram other) {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts[bucket] += other.counts[bucket];
+    }
+    count += other.count;
+    sum += other.sum;
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Forgets every latency recorded.
+   */
+  public void reset() {
+    Arrays.fill(counts, 0);
+    count = 0;
+    sum = 0;
+    max = 0;
+  }
+
+  /**
+   * Writes the histogram to a binary stream. Only buckets in use are written.
+   *
+   * @param out The stream.
+   * @throws IOException If the stream cannot be written.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeLong(count);
+    out.writeLong(sum);
+    out.writeLong(max);
+    int used = 0;
+    for (long bucketCount : counts) {
+      if (bucketCount != 0) {
+        used++;
+      }
+    }
+    out.writeShort(used);
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      if (counts[bucket] != 0) {
+        out.writeShort(bucket);
+        out.writeLong(counts[bucket]);
+      }
+    }
+  }
+
+  /**
+   * Replaces the contents with a histogram written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in The stream.
+   * @throws IOException If the stream cannot be read or is malformed.
+   */
+  public void readFrom(DataInput in) throws IOException {
+    reset();
+    count = in.readLong();
+    sum = in.readLong();
+    max = in.readLong();
+    int used = in.readUnsignedShort();
+    for (int i = 0; i < used; i++) {
+      int bucket = in.readUnsignedShort();
+      if (bucket >= BUCKETS) {
+        throw new IOException("Histogram bucket out of range: " + bucket);
+      }
+      counts[bucket] = in.readLong();
+    }
+  }
+
+  /**
+   * Returns the bucket of a value.
+   *
+   * @param value The value, not negative.
+   * @return the index of the bucket.
+   */
+  private static int bucketOf(long value) {
+    if (value < 2 * SUB_BUCKETS) {
+      return (int) value;
+    }
+    // keep the top SUB_BUCKET_BITS + 1 bits of the value
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the highest value that falls into a bucket.
+   *
+   * @param bucket The index of the bucket.
+   * @return the highest value of the bucket.
+   */
+  private static long highestValueOf(int bucket) {
+    if (bucket < 2 * SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long top = bucket - shift * SUB_BUCKETS;
+    return ((top + 1) << shift) - 1;
+  }
+
+  /**
+   * Returns a summary of the histogram.
+   *
+   * @return the count, mean, p50, p90, p99 and max.
+   */
+  @Override
+  public String toString() {
+    return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d max=%d",
+        count, getMean(), getValueAtPercentile(50), getValueAtPercentile(90),
+        getValueAtPercentile(99), max);
+  }
+}
@@ -0,0 +1,112 @@
+package model.building;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.building.enums.Direction;
+import model.elevator.ElevatorInterface;
+import model.scanerzus.Request;
+
+/**
+ * Nearest-car dispatch. Every waiting request goes to the model.elevator closest to its
+ * start floor, in floors, among those that will pass the floor in the direction of the
+ * request and have room left on their run. Unlike {@link CollectiveControlDispatch} the
+ * distance ignores the stops an model.elevator makes on the way, and an model.elevator
+ * waiting at the end of the shaft is sent off at once with the requests it is nearest to
+ * instead of taking the oldest requests in the queue.
+ */
+public class NearestCarDispatch implements DispatchStrategy {
+  private final List<Request> dispatchBuffer = new ArrayList<>(1);
+
+  /**
+   * Hands every waiting request to the nearest model.elevator that can take it.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   */
+  @Override
+  public void distributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    dispatch(elevators, upRequests, Direction.UP);
+    dispatch(elevators, downRequests, Direction.DOWN);
+  }
+
+  /**
+   * Any model.elevator may be nearest to a waiting request, so this is true whenever
+   * requests are waiting.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   * @return true if any request is waiting.
+   */
+  @Override
+  public boolean canDistributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    return !upRequests.isEmpty() || !downRequests.isEmpty();
+  }
+
+  /**
+   * Hands the waiting requests of one direction to the nearest elevators.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param requests The queue of requests to dispatch.
+   * @param direction The direction of the requests.
+   */
+  private void dispatch(
+      List<ElevatorInterface> elevators,
+      RequestQueue requests,
+      Direction direction
+  ) {
+    int floors = elevators.get(0).getMaxFloor();
+    for (int floor = 0; floor < floors && !requests.isEmpty(); floor++) {
+      Request request;
+      while ((request = requests.peekFirstAtFloor(floor)) != null) {
+        ElevatorInterface nearest = null;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+          ElevatorInterface elevator = elevators.get(i);
+          if (elevator.getEstimatedTicksTo(floor, direction) < 0) {
+            continue;
+          }
+          int distance = Math.abs(elevator.getCurrentFloor() - floor);
+          if (distance < nearestDistance) {
+            nearest = elevator;
+            nearestDistance = distance;
+          }
+        }
+        if (nearest == null || !assign(nearest, request)) {
+          break;
+        }
+        requests.pollFirstAtFloor(floor);
+      }
+    }
+  }
+
+  /**
+   * Hands one request to an model.elevator, sending it off if it is waiting at the end of
+   * the shaft.
+   *
+   * @param elevator The model.elevator.
+   * @param request The request.
+   * @return true if the model.elevator took the request.
+   */
+  private boolean assign(ElevatorInterface elevator, Request request) {
+    if (elevator.addStopRequest(request)) {
+      return true;
+    }
+    if (!elevator.isTakingRequests()) {
+      return false;
+    }
+    dispatchBuffer.clear();
+    dispatchBuffer.add(request);
+    elevator.processRequests(dispatchBuffer);
+    return true;
+  }
+}
@@ -0,0 +1,99 @@
+package model.building;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import model.elevator.ElevatorInterface;
+
+/**
+ * Steps a list of elevators on a fork/join pool. The list is split into contiguous ranges
+ * and each model.elevator is stepped exactly once per call, so the result is the same as
+ * stepping them one after another: within a tick the elevators do not share any state.
+ * The call returns only after every range has finished, which is the per-tick barrier.
+ */
+class ParallelStepper {
+  /**
+   * Ranges smaller than this are stepped on one thread, so small fleets do not pay for
+   * task scheduling.
+   */
+  private static final int MIN_CHUNK = 64;
+
+  private final ForkJoinPool pool;
+  private final int parallelism;
+
+  /**
+   * Constructs a stepper with its own pool of worker threads.
+   *
+   * @param parallelism The number of worker threads.
+   */
+  ParallelStepper(int parallelism) {
+    this.parallelism = parallelism;
+    // the default worker threads are daemon threads, so an idle pool never blocks exit
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Returns the number of worker threads.
+   *
+   * @return the number of worker threads.
+   */
+  int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Advances every model.elevator by the same number of ticks.
+   *
+   * @param elevators The elevators to advance.
+   * @param ticks The number of ticks, see {@link ElevatorInterface#advance(int)}.
+   */
+  void advance(List<ElevatorInterface> elevators, int ticks) {
+    int chunk = Math.max(MIN_CHUNK, elevators.size() / (parallelism * 4));
+    pool.invoke(new StepTask(elevators, 0, elevators.size(), ticks, chunk));
+  }
+
+  /**
+   * Stops the worker threads.
+   */
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Steps a range of elevators, splitting it in halves until it is small enough.
+   */
+  private static class StepTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<ElevatorInterface> elevators;
+    private final int from;
+    private final int to;
+    private final int ticks;
+    private final int chunk;
+
+    StepTask(List<ElevatorInterface> elevators, int from, int to, int ticks, int chunk) {
+      this.elevators = elevators;
+      this.from = from;
+      this.to = to;
+      this.ticks = ticks;
+      this.chunk = chunk;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunk) {
+        for (int i = from; i < to; i++) {
+          if (ticks == 1) {
+            elevators.get(i).step();
+          } else {
+            elevators.get(i).advance(ticks);
+          }
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new StepTask(elevators, from, middle, ticks, chunk),
+          new StepTask(elevators, middle, to, ticks, chunk));
+    }
+  }
+}
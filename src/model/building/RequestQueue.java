@@ -0,0 +1,448 @@
+package model.building;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.scanerzus.Request;
+
+/**
+ * A queue of pending requests indexed both by arrival order and by start floor.
+ * Every request sits in two doubly linked lists at once: the global arrival-order list and
+ * the FIFO bucket of its start floor. The links are kept in parallel int arrays addressed by
+ * node index, so adding, taking from either end and removing from the middle are O(1) and
+ * do not allocate once the arrays have grown to the peak backlog.
+ *
+ * <p>Each request is packed into one long: the start floor in the top 16 bits, the end floor
+ * in the next 16 and the low 32 bits of its arrival tick in the rest. Requests added as
+ * floors never exist as objects while they wait; a {@link Request} is made for them only
+ * when they are handed out, and the same object is handed out until they leave the queue.
+ * Requests added as objects are kept alongside their key, so the caller's ticket is the one
+ * that is handed out and stamped.
+ */
+public class RequestQueue {
+  /**
+   * The number of floors a packed request can address.
+   */
+  public static final int MAX_FLOORS = 1 << 16;
+
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 16;
+  private static final long TICK_MASK = 0xFFFFFFFFL;
+
+  private long[] keys;
+  // the Request of each node once there is one, allocated with the first such request
+  private Request[] tickets;
+  private int[] next;
+  private int[] prev;
+  private int[] nextAtFloor;
+  private int[] prevAtFloor;
+  private final int[] floorHead;
+  private final int[] floorTail;
+  private final int[] floorSize;
+  private int head = NONE;
+  private int tail = NONE;
+  private int size;
+  private int freeList = NONE;
+  private int used;
+  private long version;
+  // the latest arrival tick, which restores the high bits of the packed ticks
+  private long latestTick;
+
+  /**
+   * Constructs an empty queue for a building with the given number of floors.
+   *
+   * @param numberOfFloors The number of floors in the model.building.
+   * @throws IllegalArgumentException If there are more than {@link #MAX_FLOORS} floors.
+   */
+  public RequestQueue(int numberOfFloors) {
+    if (numberOfFloors > MAX_FLOORS) {
+      throw new IllegalArgumentException("A request queue holds at most " + MAX_FLOORS
+          + " floors.");
+    }
+    this.keys = new long[INITIAL_CAPACITY];
+    this.next = new int[INITIAL_CAPACITY];
+    this.prev = new int[INITIAL_CAPACITY];
+    this.nextAtFloor = new int[INITIAL_CAPACITY];
+    this.prevAtFloor = new int[INITIAL_CAPACITY];
+    this.floorHead = new int[numberOfFloors];
+    this.floorTail = new int[numberOfFloors];
+    this.floorSize = new int[numberOfFloors];
+    Arrays.fill(floorHead, NONE);
+    Arrays.fill(floorTail, NONE);
+  }
+
+  /**
+   * Returns the number of queued requests.
+   *
+   * @return the number of queued requests.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns whether the queue is empty.
+   *
+   * @return true if there are no queued requests.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of queued requests starting at the given floor.
+   *
+   * @param floor The start floor.
+   * @return the number of queued requests starting at the floor.
+   */
+  public int sizeAtFloor(int floor) {
+    return floorSize[floor];
+  }
+
+  /**
+   * Appends a request at the end of the arrival order and of its start floor bucket. The
+   * request object itself is handed out later, with the arrival tick it carries now.
+   *
+   * @param request The request, whose start floor must be a valid floor.
+   */
+  public void add(Request request) {
+    int node = link(request.getStartFloor(), request.getEndFloor(), request.getArrivalTick());
+    if (tickets == null) {
+      tickets = new Request[keys.length];
+    }
+    tickets[node] = request;
+  }
+
+  /**
+   * Appends a request given by its floors without creating an object for it.
+   *
+   * @param startFloor The start floor, which must be a valid floor.
+   * @param endFloor The end floor.
+   * @param arrivalTick The tick the request arrived at, not less than that of any request
+   *                    added before.
+   */
+  public void add(int startFloor, int endFloor, long arrivalTick) {
+    link(startFloor, endFloor, arrivalTick);
+  }
+
+  /**
+   * Appends a packed request to both lists.
+   *
+   * @param startFloor The start floor.
+   * @param endFloor The end floor.
+   * @param arrivalTick The arrival tick, or -1 if the request was never stamped.
+   * @return the node of the request.
+   */
+  private int link(int startFloor, int endFloor, long arrivalTick) {
+    int node = allocate();
+    keys[node] = ((long) startFloor << 48) | ((long) endFloor << 32) | (arrivalTick & TICK_MASK);
+    if (arrivalTick > latestTick) {
+      latestTick = arrivalTick;
+    }
+
+    next[node] = NONE;
+    prev[node] = tail;
+    if (tail == NONE) {
+      head = node;
+    } else {
+      next[tail] = node;
+    }
+    tail = node;
+
+    int floor = startFloor;
+    nextAtFloor[node] = NONE;
+    prevAtFloor[node] = floorTail[floor];
+    if (floorTail[floor] == NONE) {
+      floorHead[floor] = node;
+    } else {
+      nextAtFloor[floorTail[floor]] = node;
+    }
+    floorTail[floor] = node;
+    floorSize[floor]++;
+    size++;
+    version++;
+    return node;
+  }
+
+  /**
+   * Copies the first requests in arrival order into a list without removing them.
+   *
+   * @param count The maximum number of requests to copy.
+   * @param out The list to append the requests to.
+   * @return the number of requests copied.
+   */
+  public int peekFirst(int count, List<Request> out) {
+    int copied = 0;
+    for (int node = head; node != NONE && copied < count; node = next[node]) {
+      out.add(ticket(node));
+      copied++;
+    }
+    return copied;
+  }
+
+  /**
+   * Removes the first requests in arrival order.
+   *
+   * @param count The maximum number of requests to remove.
+   * @return the number of requests removed.
+   */
+  public int removeFirst(int count) {
+    int removed = 0;
+    while (head != NONE && removed < count) {
+      unlink(head);
+      removed++;
+    }
+    return removed;
+  }
+
+  /**
+   * Returns the oldest request starting at the given floor without removing it.
+   *
+   * @param floor The start floor.
+   * @return the request, or null if no request starts at the floor.
+   */
+  public Request peekFirstAtFloor(int floor) {
+    int node = floorHead[floor];
+    return node == NONE ? null : ticket(node);
+  }
+
+  /**
+   * Removes and returns the oldest request starting at the given floor.
+   *
+   * @param floor The start floor.
+   * @return the request, or null if no request starts at the floor.
+   */
+  public Request pollFirstAtFloor(int floor) {
+    int node = floorHead[floor];
+    if (node == NONE) {
+      return null;
+    }
+    Request request = ticket(node);
+    unlink(node);
+    return request;
+  }
+
+  /**
+   * Removes every request from the queue.
+   */
+  public void clear() {
+    if (tickets != null) {
+      Arrays.fill(tickets, 0, used, null);
+    }
+    Arrays.fill(floorHead, NONE);
+    Arrays.fill(floorTail, NONE);
+    Arrays.fill(floorSize, 0);
+    head = NONE;
+    tail = NONE;
+    size = 0;
+    freeList = NONE;
+    used = 0;
+    version++;
+  }
+
+  /**
+   * Returns a number that changes whenever a request is added or removed, so a snapshot
+   * of the queue can be reused while the version is the same.
+   *
+   * @return the version of the queue.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns a snapshot of the queued requests in arrival order. Requests that have not been
+   * handed out yet appear as new objects, which the queue does not keep.
+   *
+   * @return a new list holding the queued requests.
+   */
+  public List<Request> toList() {
+    List<Request> list = new ArrayList<>(size);
+    for (int node = head; node != NONE; node = next[node]) {
+      Request ticket = tickets == null ? null : tickets[node];
+      list.add(ticket != null ? ticket : toRequest(keys[node]));
+    }
+    return list;
+  }
+
+  /**
+   * Writes the queued requests in arrival order to a binary stream.
+   *
+   * @param out The stream.
+   * @throws IOException If the stream cannot be written.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(size);
+    for (int node = head; node != NONE; node = next[node]) {
+      if (tickets != null && tickets[node] != null) {
+        tickets[node].writeTo(out);
+      } else {
+        // the same record Request.writeTo writes for a request that is still waiting
+        out.writeInt(startFloor(keys[node]));
+        out.writeInt(endFloor(keys[node]));
+        out.writeLong(arrivalTick(keys[node]));
+        out.writeLong(-1);
+        out.writeLong(-1);
+      }
+    }
+  }
+
+  /**
+   * Replaces the queued requests with those written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in The stream.
+   * @throws IOException If the stream cannot be read or holds a request for another
+   *     number of floors.
+   */
+  public void readFrom(DataInput in) throws IOException {
+    clear();
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      Request request = Request.readFrom(in);
+      if (request.getStartFloor() < 0 || request.getStartFloor() >= floorHead.length
+          || request.getEndFloor() < 0 || request.getEndFloor() >= MAX_FLOORS) {
+        throw new IOException("Queued request out of range: " + request);
+      }
+      if (request.getArrivalTick() >= 0) {
+        // waiting requests carry nothing beyond their key
+        add(request.getStartFloor(), request.getEndFloor(), request.getArrivalTick());
+      } else {
+        add(request);
+      }
+    }
+  }
+
+  /**
+   * Returns the request of a node, making it the first time the node is handed out.
+   *
+   * @param node The node.
+   * @return the request.
+   */
+  private Request ticket(int node) {
+    if (tickets == null) {
+      tickets = new Request[keys.length];
+    }
+    if (tickets[node] == null) {
+      tickets[node] = toRequest(keys[node]);
+    }
+    return tickets[node];
+  }
+
+  /**
+   * Makes a new request from a packed key, stamped with its arrival tick.
+   *
+   * @param key The packed request.
+   * @return the request.
+   */
+  private Request toRequest(long key) {
+    Request request = new Request(startFloor(key), endFloor(key));
+    request.stampArrival(arrivalTick(key));
+    return request;
+  }
+
+  /**
+   * Returns the start floor of a packed request.
+   *
+   * @param key The packed request.
+   * @return the start floor.
+   */
+  private static int startFloor(long key) {
+    return (int) (key >>> 48);
+  }
+
+  /**
+   * Returns the end floor of a packed request.
+   *
+   * @param key The packed request.
+   * @return the end floor.
+   */
+  private static int endFloor(long key) {
+    return (int) (key >>> 32) & 0xFFFF;
+  }
+
+  /**
+   * Returns the arrival tick of a packed request. The high bits are taken from the latest
+   * arrival, which is exact as long as no request waits 2^32 ticks or more.
+   *
+   * @param key The packed request.
+   * @return the arrival tick.
+   */
+  private long arrivalTick(long key) {
+    return latestTick - ((latestTick - key) & TICK_MASK);
+  }
+
+  /**
+   * Unlinks a node from both lists and returns it to the free list.
+   *
+   * @param node The node to remove.
+   */
+  private void unlink(int node) {
+    if (prev[node] == NONE) {
+      head = next[node];
+    } else {
+      next[prev[node]] = next[node];
+    }
+    if (next[node] == NONE) {
+      tail = prev[node];
+    } else {
+      prev[next[node]] = prev[node];
+    }
+
+    int floor = startFloor(keys[node]);
+    if (prevAtFloor[node] == NONE) {
+      floorHead[floor] = nextAtFloor[node];
+    } else {
+      nextAtFloor[prevAtFloor[node]] = nextAtFloor[node];
+    }
+    if (nextAtFloor[node] == NONE) {
+      floorTail[floor] = prevAtFloor[node];
+    } else {
+      prevAtFloor[nextAtFloor[node]] = prevAtFloor[node];
+    }
+    floorSize[floor]--;
+    size--;
+    version++;
+
+    if (tickets != null) {
+      tickets[node] = null;
+    }
+    next[node] = freeList;
+    freeList = node;
+  }
+
+  /**
+   * Takes a node from the free list, growing the arrays if every node is in use.
+   *
+   * @return the index of a free node.
+   */
+  private int allocate() {
+    if (freeList != NONE) {
+      int node = freeList;
+      freeList = next[node];
+      return node;
+    }
+    if (used == keys.length) {
+      grow(keys.length * 2);
+    }
+    return used++;
+  }
+
+  /**
+   * Resizes the node arrays.
+   *
+   * @param capacity The new number of nodes, larger than the current one.
+   */
+  private void grow(int capacity) {
+    keys = Arrays.copyOf(keys, capacity);
+    if (tickets != null) {
+      tickets = Arrays.copyOf(tickets, capacity);
+    }
+    next = Arrays.copyOf(next, capacity);
+    prev = Arrays.copyOf(prev, capacity);
+    nextAtFloor = Arrays.copyOf(nextAtFloor, capacity);
+    prevAtFloor = Arrays.copyOf(prevAtFloor, capacity);
+  }
+}
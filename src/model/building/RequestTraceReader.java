@@ -0,0 +1,219 @@
+package model.building;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays a binary trace written by {@link RequestTraceWriter}. The file is read through
+ * memory-mapped windows of the FileChannel, so a trace of any length is replayed without
+ * parsing text or loading it up front; only the window being read is mapped.
+ *
+ * <p>The reader is a cursor: {@link #peekTick()} looks at the tick of the next request,
+ * {@link #next()} moves to it and the getters return its fields.
+ */
+public class RequestTraceReader implements Closeable {
+  /**
+   * The number of records mapped at a time, 1 GiB worth.
+   */
+  private static final long WINDOW_RECORDS = 1L << 26;
+
+  private final FileChannel channel;
+  private final long records;
+  private final long windowRecords;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
+  private long tick;
+  private int startFloor;
+  private int endFloor;
+
+  /**
+   * Opens a trace file for replay.
+   *
+   * @param path The path of the trace file.
+   * @throws IOException If the file cannot be read or is not a complete trace.
+   */
+  public RequestTraceReader(Path path) throws IOException {
+    this(path, WINDOW_RECORDS);
+  }
+
+  /**
+   * Opens a trace file for replay, mapping the given number of records at a time.
+   *
+   * @param path The path of the trace file.
+   * @param windowRecords The number of records per mapped window.
+   * @throws IOException If the file cannot be read or is not a complete trace.
+   */
+  RequestTraceReader(Path path, long windowRecords) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      if (size < RequestTraceWriter.HEADER_BYTES) {
+        throw new IOException("Not a request trace: " + path);
+      }
+      ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          RequestTraceWriter.HEADER_BYTES);
+      if (header.getInt() != RequestTraceWriter.MAGIC) {
+        throw new IOException("Not a request trace: " + path);
+      }
+      if (header.getInt() != RequestTraceWriter.VERSION) {
+        throw new IOException("Unsupported request trace version: " + path);
+      }
+      long body = size - RequestTraceWriter.HEADER_BYTES;
+      if (body % RequestTraceWriter.RECORD_BYTES != 0) {
+        throw new IOException("Truncated request trace: " + path);
+      }
+      this.records = body / RequestTraceWriter.RECORD_BYTES;
+      this.windowRecords = windowRecords;
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Checks whether a file starts with the request trace magic number.
+   *
+   * @param path The path of the file.
+   * @return true if the file looks like a binary request trace.
+   * @throws IOException If the file cannot be read.
+   */
+  public static boolean isTrace(Path path) throws IOException {
+    try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer magic = ByteBuffer.allocate(4);
+      while (magic.hasRemaining() && file.read(magic) >= 0) {
+        // keep reading until the magic number is complete or the file ends
+      }
+      return !magic.hasRemaining() && magic.getInt(0) == RequestTraceWriter.MAGIC;
+    }
+  }
+
+  /**
+   * Returns the number of requests in the trace.
+   *
+   * @return the number of requests.
+   */
+  public long size() {
+    return records;
+  }
+
+  /**
+   * Returns the tick of the next request without moving to it.
+   *
+   * @return the tick, or Long.MAX_VALUE at the end of the trace.
+   * @throws IOException If the trace cannot be mapped.
+   */
+  public long peekTick() throws IOException {
+    if (position == records) {
+      return Long.MAX_VALUE;
+    }
+    return window().getLong(offset());
+  }
+
+  /**
+   * Moves to the next request.
+   *
+   * @return false at the end of the trace.
+   * @throws IOException If the trace cannot be mapped.
+   */
+  public boolean next() throws IOException {
+    if (position == records) {
+      return false;
+    }
+    MappedByteBuffer buffer = window();
+    int offset = offset();
+    tick = buffer.getLong(offset);
+    startFloor = buffer.getInt(offset + 8);
+    endFloor = buffer.getInt(offset + 12);
+    position++;
+    return true;
+  }
+
+  /**
+   * Returns the tick of the current request.
+   *
+   * @return the tick.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns the start floor of the current request.
+   *
+   * @return the start floor.
+   */
+  public int getStartFloor() {
+    return startFloor;
+  }
+
+  /**
+   * Returns the end floor of the current request.
+   *
+   * @return the end floor.
+   */
+  public int getEndFloor() {
+    return endFloor;
+  }
+
+  /**
+   * Adds every remaining request up to the given tick to a model.building.
+   *
+   * @param building The model.building to feed.
+   * @param untilTick The last tick to feed, inclusive.
+   * @return the number of requests fed.
+   * @throws IOException If the trace cannot be mapped.
+   */
+  public int feed(BuildingInterface building, long untilTick) throws IOException {
+    int fed = 0;
+    while (peekTick() <= untilTick) {
+      next();
+      building.addRequest(startFloor, endFloor);
+      fed++;
+    }
+    return fed;
+  }
+
+  /**
+   * Closes the file. Mapped windows stay valid until they are garbage collected.
+   *
+   * @throws IOException If the file cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Returns the mapped window holding the record at the current position,
+   * mapping it first if needed.
+   *
+   * @return the window.
+   * @throws IOException If the trace cannot be mapped.
+   */
+  private MappedByteBuffer window() throws IOException {
+    if (window == null || position >= windowStart + windowRecords) {
+      windowStart = position - position % windowRecords;
+      long count = Math.min(windowRecords, records - windowStart);
+      window = channel.map(FileChannel.MapMode.READ_ONLY,
+          RequestTraceWriter.HEADER_BYTES + windowStart * RequestTraceWriter.RECORD_BYTES,
+          count * RequestTraceWriter.RECORD_BYTES);
+    }
+    return window;
+  }
+
+  /**
+   * Returns the byte offset of the current record within the window.
+   *
+   * @return the offset.
+   */
+  private int offset() {
+    return (int) ((position - windowStart) * RequestTraceWriter.RECORD_BYTES);
+  }
+}
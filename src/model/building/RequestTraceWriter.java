@@ -0,0 +1,99 @@
+package model.building;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes requests with their tick to a compact binary trace that {@link RequestTraceReader}
+ * replays. The file starts with an 8 byte header, the magic number {@code ELVT} and the format
+ * version, followed by one 16 byte record per request: the tick as a long, then the start floor
+ * and the end floor as ints, all big-endian. The same requests always produce the same bytes.
+ *
+ * <p>Records are buffered and written in large blocks; call {@link #close()} to write the rest.
+ */
+public class RequestTraceWriter implements Closeable {
+  static final int MAGIC = 0x454C5654; // "ELVT"
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 8;
+  static final int RECORD_BYTES = 16;
+  private static final int BUFFER_RECORDS = 4096;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer;
+  private long lastTick;
+  private long count;
+
+  /**
+   * Creates a trace file, replacing any existing file, and writes its header.
+   *
+   * @param path The path of the trace file.
+   * @throws IOException If the file cannot be created.
+   */
+  public RequestTraceWriter(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    this.buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+    this.buffer.putInt(MAGIC).putInt(VERSION);
+  }
+
+  /**
+   * Appends one request to the trace.
+   *
+   * @param tick The tick the request arrived at; ticks must not decrease.
+   * @param startFloor The start floor of the request.
+   * @param endFloor The end floor of the request.
+   * @throws IOException If the trace cannot be written.
+   * @throws IllegalArgumentException If the tick is before the previous one.
+   */
+  public void record(long tick, int startFloor, int endFloor) throws IOException {
+    if (tick < lastTick) {
+      throw new IllegalArgumentException("Requests must be recorded in tick order.");
+    }
+    if (buffer.remaining() < RECORD_BYTES) {
+      flush();
+    }
+    buffer.putLong(tick).putInt(startFloor).putInt(endFloor);
+    lastTick = tick;
+    count++;
+  }
+
+  /**
+   * Returns the number of requests recorded so far.
+   *
+   * @return the number of requests.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Writes the buffered records to the file.
+   *
+   * @throws IOException If the trace cannot be written.
+   */
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Writes the buffered records and closes the file.
+   *
+   * @throws IOException If the trace cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
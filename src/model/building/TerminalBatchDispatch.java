@@ -0,0 +1,122 @@
+package model.building;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.building.enums.Direction;
+import model.elevator.ElevatorInterface;
+import model.scanerzus.Request;
+
+/**
+ * The original dispatch strategy. Requests for upward movement are assigned to elevators on
+ * the ground floor, while requests for downward movement are assigned to elevators on the top
+ * floor, oldest first and up to the capacity of the model.elevator. An model.elevator takes a
+ * batch only while it has no stops left, so a batch is never replaced by the next one while
+ * the model.elevator is still boarding at the end of the shaft. Elevators on their way never
+ * take on new requests.
+ */
+public class TerminalBatchDispatch implements DispatchStrategy {
+  private final List<Request> dispatchBuffer = new ArrayList<>();
+
+  /**
+   * Hands the oldest waiting requests to every model.elevator setting off from the ground
+   * floor or the top floor.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   */
+  @Override
+  public void distributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    // main flow: distribute upRequest on top floor and downRequest on bottom floor
+    for (int i = 0; i < elevators.size(); i++) {
+      ElevatorInterface elevator = elevators.get(i);
+      if (elevator.getCurrentFloor() == 0 && !upRequests.isEmpty()) {
+        processElevatorRequests(elevator, upRequests, Direction.UP);
+      } else if (elevator.getCurrentFloor() == elevator.getMaxFloor() - 1
+          && !downRequests.isEmpty()) {
+        processElevatorRequests(elevator, downRequests, Direction.DOWN);
+      }
+    }
+  }
+
+  /**
+   * Checks whether an model.elevator is setting off from the end of the shaft where
+   * requests are waiting.
+   *
+   * @param elevators The elevators of the model.building.
+   * @param upRequests The waiting requests going up, oldest first.
+   * @param downRequests The waiting requests going down, oldest first.
+   * @return true if a waiting request can be dispatched on this tick.
+   */
+  @Override
+  public boolean canDistributeRequests(
+      List<ElevatorInterface> elevators,
+      RequestQueue upRequests,
+      RequestQueue downRequests
+  ) {
+    for (int i = 0; i < elevators.size(); i++) {
+      ElevatorInterface elevator = elevators.get(i);
+      if (elevator.getStopCount() > 0) {
+        continue;
+      }
+      int floor = elevator.getCurrentFloor();
+      Direction direction = elevator.getDirection();
+      if (floor == 0) {
+        if (!upRequests.isEmpty() && direction == Direction.UP) {
+          return true;
+        }
+      } else if (floor == elevator.getMaxFloor() - 1
+          && !downRequests.isEmpty() && direction == Direction.DOWN) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Processes requests for a given model.elevator, based on its direction.
+   * Requests that match the model.elevator's current direction are processed.
+   *
+   * @param elevator The model.elevator to process requests for.
+   * @param requests The queue of requests to process.
+   * @param direction The direction of the requests.
+   */
+  private void processElevatorRequests(
+       ElevatorInterface elevator,
+       RequestQueue requests,
+       Direction direction
+  ) {
+    // if model.elevator is going in the same direction as the request
+    // and is not still serving its last batch
+    if (elevator.getDirection() == direction && elevator.getStopCount() == 0) {
+      // retrieve requests for model.elevator
+      List<Request> toProcess = getRequestsForElevator(elevator, requests);
+      // process requests with model.elevator and remove them from the head of the queue;
+      // it stands at the end of the shaft, so processRequests cannot refuse them
+      elevator.processRequests(toProcess);
+      requests.removeFirst(toProcess.size());
+    }
+  }
+
+  /**
+   * Retrieves a subset of requests for an model.elevator, ensuring the number of
+   * requests does not exceed the model.elevator's capacity.
+   *
+   * @param elevator The model.elevator the requests are for.
+   * @param requests The queue of requests to parse.
+   * @return A list of requests for the model.elevator, constrained by its capacity.
+   *     The list is reused by the next call.
+   */
+  private List<Request> getRequestsForElevator(ElevatorInterface elevator, RequestQueue requests) {
+    dispatchBuffer.clear();
+    // parse requests via capacity, oldest first. The trips of a batch start on different
+    // floors, but there are never more of them than the capacity, so no floor between two
+    // stops can be overloaded and processRequests does not check the per-floor load
+    requests.peekFirst(elevator.getMaxOccupancy(), dispatchBuffer);
+    return dispatchBuffer;
+  }
+}
@@ -0,0 +1,15 @@
+package model.building.enums;
+
+/**
+ * The way a model.building stores and steps its elevators.
+ */
+public enum ElevatorEngine {
+  /**
+   * One Elevator object per car.
+   */
+  OBJECTS,
+  /**
+   * One ElevatorFleet holding every car in parallel primitive arrays.
+   */
+  FLEET
+}
@@ -1,5 +1,9 @@
 package model.elevator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import model.building.enums.Direction;
 import model.scanerzus.Request;
@@ -9,15 +13,12 @@ import model.scanerzus.Request;
  * An implementation of the ElevatorStatus interface.
  */
 public class Elevator implements ElevatorInterface {
-  /************************************************************************
-   * static value used to initialize the model.elevator id.
-   ************************************************************************/
-  private static int newElevatorId = 0;
-
   /************************************************************************
    * The id of the model.elevator.This is read only.
+   * It is assigned by the owner (usually the model.building), so elevators
+   * of different buildings never share a counter.
    ************************************************************************/
-  private final int id = newElevatorId++;
+  private final int id;
 
   /************************************************************************
    * The total number of floors in the model.building.
@@ -31,14 +32,25 @@ public class Elevator implements ElevatorInterface {
 
   /************************************************************************
    * The number of steps that the door is open for.
+   * Shared by all elevators, so it does not take space in each instance.
    ************************************************************************/
-  @SuppressWarnings("FieldCanBeLocal")
-  private final int doorOpenTimeTotal = 3;
+  static final int DOOR_OPEN_TIME_TOTAL = 3;
 
   /************************************************************************
    * The number of steps that the model.elevator will wait at the top or bottom.
    ************************************************************************/
-  private final int stopWaitTimeTotal = 5;
+  static final int STOP_WAIT_TIME_TOTAL = 5;
+
+  /************************************************************************
+   * The number of steps a stop on the way adds to a run:
+   * one to open the door and the time the door stays open.
+   ************************************************************************/
+  static final int STOP_TIME_TOTAL = DOOR_OPEN_TIME_TOTAL + 1;
+
+  /************************************************************************
+   * The initial size of the manifest arrays.
+   ************************************************************************/
+  static final int INITIAL_MANIFEST = 4;
 
   /************************************************************************
    * The class variables that change as the model.elevator runs.
@@ -75,40 +87,107 @@ public class Elevator implements ElevatorInterface {
 
 
   /************************************************************************
-   * The requests for the floors.
+   * The requests for the floors, one bit per floor (see FloorBitSet).
+   * Once the array has been handed to an ElevatorReport it is never
+   * written again; the next change works on a copy instead.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private long[] floorRequests; // bit set if there is a request for the floor.
+
+  /************************************************************************
+   * True while the floorRequests array is shared with the last report.
+   ************************************************************************/
+  private boolean floorRequestsShared;
+
+  /************************************************************************
+   * The number of passengers assigned to this model.elevator who will be on
+   * board between floor i and floor i + 1, for each i. A request is counted
+   * from when it is taken on until it is dropped off, so a passenger can be
+   * added on the way whenever every floor of the trip has room left.
+   ************************************************************************/
+  private final int[] segmentLoad;
+
+  /************************************************************************
+   * The floors travelled, and the passengers on board summed over them.
+   * Together with maxOccupancy they give the utilization of the car.
+   ************************************************************************/
+  private long floorsTravelled;
+  private long passengerFloors;
+
+  /************************************************************************
+   * The passenger manifest: requests assigned to this model.elevator that
+   * are still waiting at their start floor, and requests on board.
+   * The arrays grow to the largest load and are then reused.
+   ************************************************************************/
+  private Request[] waiting = new Request[INITIAL_MANIFEST];
+  private int waitingCount;
+  private Request[] riding = new Request[INITIAL_MANIFEST];
+  private int ridingCount;
+
+  /************************************************************************
+   * The passengers picked up and dropped off on the last step, until
+   * the owner drains them.
+   ************************************************************************/
+  private Request[] pickedUp = new Request[INITIAL_MANIFEST];
+  private int pickedUpCount;
+  private Request[] droppedOff = new Request[INITIAL_MANIFEST];
+  private int droppedOffCount;
+
+  /************************************************************************
+   * The change counter, incremented whenever the state of the
+   * model.elevator changes.
+   ************************************************************************/
+  private long version;
+
+  /************************************************************************
+   * The last report handed out, reused while the version is unchanged.
+   ************************************************************************/
+  private ElevatorReport lastReport;
 
 
   private boolean outOfService;  // start must be issued on the model.elevator to start it.
 
 
   /**
-   * The constructor for this model.elevator.
+   * The constructor for a standalone model.elevator with id 0.
    * The model.elevator is initially at the ground floor and is not moving.
    *
    * @param maxFloor     the total number of floors in the model.building
-   *                     must be greater than 0
-   *                     must be less than 30 (city bylaws)
+   *                     must be at least 3
    * @param maxOccupancy the maximum number of people that can fit in the model.elevator
-   *                     must be greater than 0
-   *                     must be less than 20 (fire code)
+   *                     must be at least 3
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    this(0, maxFloor, maxOccupancy);
+  }
+
+  /**
+   * The constructor for this model.elevator with an id chosen by the caller.
+   * The model.elevator is initially at the ground floor and is not moving.
+   *
+   * @param id           the id of the model.elevator, unique within its model.building
+   * @param maxFloor     the total number of floors in the model.building
+   *                     must be at least 3
+   * @param maxOccupancy the maximum number of people that can fit in the model.elevator
+   *                     must be at least 3
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int id, int maxFloor, int maxOccupancy) {
+    if (maxFloor < 3) {
+      throw new IllegalArgumentException("maxFloor must be at least 3");
     }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    if (maxOccupancy < 3) {
+      throw new IllegalArgumentException("maxOccupancy must be at least 3");
     }
 
+    this.id = id;
     this.maxFloor = maxFloor;
     this.maxOccupancy = maxOccupancy;
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = FloorBitSet.create(maxFloor);
+    this.segmentLoad = new int[maxFloor - 1];
     this.takingRequests = false;
 
   }
@@ -177,12 +256,50 @@ public class Elevator implements ElevatorInterface {
 
   /**
    * Return the current stop requests.
+   * This is a copy of the packed stop set, one flag per floor.
    *
    * @return the current stop requests.
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return FloorBitSet.toBooleanArray(this.floorRequests, this.maxFloor);
+  }
+
+  /**
+   * Copy the current stop requests into an array.
+   *
+   * @param words  the array to copy into.
+   * @param offset the index of the first word to write.
+   */
+  @Override
+  public void copyFloorRequests(long[] words, int offset) {
+    System.arraycopy(this.floorRequests, 0, words, offset, this.floorRequests.length);
+  }
+
+  /**
+   * Return the number of floors the model.elevator will stop at.
+   *
+   * @return the number of stop requests.
+   */
+  @Override
+  public int getStopCount() {
+    return FloorBitSet.count(this.floorRequests);
+  }
+
+  /**
+   * Return the next floor the model.elevator will stop at in its current direction,
+   * including the current floor.
+   *
+   * @return the next stop, or -1 if there is no stop ahead.
+   */
+  @Override
+  public int getNextStop() {
+    if (this.direction == Direction.UP) {
+      return FloorBitSet.nextSetBit(this.floorRequests, this.currentFloor);
+    } else if (this.direction == Direction.DOWN) {
+      return FloorBitSet.previousSetBit(this.floorRequests, this.currentFloor);
+    }
+    return FloorBitSet.get(this.floorRequests, this.currentFloor) ? this.currentFloor : -1;
   }
 
   /* ***********************************************************************
@@ -204,12 +321,13 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public void start() {
+    this.version++;
     this.outOfService = false;
     this.takingRequests = true;
     clearStopRequests();
     this.doorClosed = true;
     this.doorOpenTimeLeft = 0;
-    this.stopWaitTimeLeft = this.stopWaitTimeTotal;
+    this.stopWaitTimeLeft = STOP_WAIT_TIME_TOTAL;
     this.direction = Direction.UP;
   }
 
@@ -222,6 +340,16 @@ public class Elevator implements ElevatorInterface {
    * Fourth check to see if there is a request at this floor.
    */
   public void step() {
+    // events of the previous step that nobody drained are dropped
+    this.pickedUpCount = 0;
+    this.droppedOffCount = 0;
+
+    // An model.elevator parked out of service with its door open does not change.
+    if (this.outOfService && this.currentFloor == 0 && !this.doorClosed) {
+      return;
+    }
+    this.version++;
+
     // If the model.elevator is out of service then we need to deal with that.
     if (this.outOfService) {
       this.stepOutOfService();
@@ -245,10 +373,11 @@ public class Elevator implements ElevatorInterface {
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
     // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    if (FloorBitSet.get(this.floorRequests, this.currentFloor)) {
       this.doorClosed = false;
-      this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.doorOpenTimeLeft = DOOR_OPEN_TIME_TOTAL;
+      FloorBitSet.clear(writableFloorRequests(), this.currentFloor);
+      this.exchangePassengers();
       return;
     }
 
@@ -261,10 +390,10 @@ public class Elevator implements ElevatorInterface {
     // If we are at the bottom
     // and the direction is down
     // we need to set the direction to up
-    // we set the timer to this.stopWaitTimeTotal
+    // we set the timer to STOP_WAIT_TIME_TOTAL
     if (this.currentFloor == 0 && this.direction == Direction.DOWN) {
       this.direction = Direction.STOPPED;
-      this.stopWaitTimeLeft = this.stopWaitTimeTotal;
+      this.stopWaitTimeLeft = STOP_WAIT_TIME_TOTAL;
       this.takingRequests = true;
       return;
     }
@@ -272,10 +401,10 @@ public class Elevator implements ElevatorInterface {
     // If we are at the top
     // and the direction is up
     // we need to set the direction to down
-    // we set the timer to this.stopWaitTimeTotal
+    // we set the timer to STOP_WAIT_TIME_TOTAL
     if (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP) {
       this.direction = Direction.STOPPED;
-      this.stopWaitTimeLeft = this.stopWaitTimeTotal;
+      this.stopWaitTimeLeft = STOP_WAIT_TIME_TOTAL;
       this.takingRequests = true;
       return;
     }
@@ -290,11 +419,99 @@ public class Elevator implements ElevatorInterface {
     int floorIncrement = 1;
     if (this.direction == Direction.UP) {
       this.currentFloor += floorIncrement;
+      this.travel(floorIncrement);
     } else if (this.direction == Direction.DOWN) {
       this.currentFloor -= floorIncrement;
+      this.travel(floorIncrement);
     }
   }
 
+  /**
+   * Return how many steps can be taken in one go with {@link #advance(int)}.
+   * Within that many steps the model.elevator only counts down a timer or moves
+   * through floors where it does not stop; the last of them may complete the
+   * countdown or arrive at the floor where something happens next.
+   *
+   * @return the number of steps to the next event, at least 1,
+   *     or Integer.MAX_VALUE if the model.elevator will not change any more.
+   */
+  @Override
+  public int getTicksToNextEvent() {
+    if (this.outOfService) {
+      if (this.currentFloor == 0) {
+        return this.doorClosed ? 1 : Integer.MAX_VALUE;
+      }
+      if (!this.doorClosed) {
+        return Math.max(1, this.doorOpenTimeLeft);
+      }
+      return this.currentFloor;
+    }
+
+    if (!this.doorClosed) {
+      return Math.max(1, this.doorOpenTimeLeft);
+    }
+
+    if (this.stopWaitTimeLeft > 0) {
+      return this.stopWaitTimeLeft;
+    }
+
+    if (FloorBitSet.get(this.floorRequests, this.currentFloor)
+        || (this.currentFloor == 0 && this.direction == Direction.DOWN)
+        || (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP)) {
+      return 1;
+    }
+
+    // moving: run to the next stop or to the end of the shaft, whichever comes first
+    if (this.direction == Direction.UP) {
+      int stop = FloorBitSet.nextSetBit(this.floorRequests, this.currentFloor + 1);
+      int target = stop < 0 ? this.maxFloor - 1 : Math.min(stop, this.maxFloor - 1);
+      return target - this.currentFloor;
+    } else if (this.direction == Direction.DOWN) {
+      int stop = FloorBitSet.previousSetBit(this.floorRequests, this.currentFloor - 1);
+      return this.currentFloor - Math.max(stop, 0);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Take several steps at once. The result is the same as calling
+   * {@link #step()} that many times.
+   *
+   * @param ticks the number of steps, between 1 and {@link #getTicksToNextEvent()}.
+   * @throws IllegalArgumentException if ticks is out of range.
+   */
+  @Override
+  public void advance(int ticks) throws IllegalArgumentException {
+    int limit = getTicksToNextEvent();
+    if (ticks < 1 || ticks > limit) {
+      throw new IllegalArgumentException("ticks must be between 1 and " + limit);
+    }
+    if (limit == Integer.MAX_VALUE) {
+      // nothing will change; a single step keeps the version in step with step()
+      this.step();
+      return;
+    }
+
+    // all but the last step only count down or move, the last one may trigger the event
+    int quiet = ticks - 1;
+    if (quiet > 0) {
+      this.version++;
+      if (!this.doorClosed) {
+        this.doorOpenTimeLeft -= quiet;
+      } else if (!this.outOfService && this.stopWaitTimeLeft > 0) {
+        this.stopWaitTimeLeft -= quiet;
+      } else if (this.outOfService || this.direction == Direction.DOWN) {
+        this.direction = Direction.DOWN;
+        this.currentFloor -= quiet;
+        this.travel(quiet);
+      } else {
+        this.currentFloor += quiet;
+        this.travel(quiet);
+      }
+    }
+    this.step();
+  }
+
   /**
    * Step the model.elevator when out of service.
    * If the model.elevator is on the ground floor and the door is open return
@@ -313,7 +530,7 @@ public class Elevator implements ElevatorInterface {
     if (this.currentFloor == 0) {
       this.doorClosed = false;
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      FloorBitSet.clear(writableFloorRequests(), this.currentFloor);
       // we can set the model.elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -331,6 +548,7 @@ public class Elevator implements ElevatorInterface {
     // set the direction of the model.elevator to down.
     this.direction = Direction.DOWN;
     this.currentFloor--;
+    this.travel(1);
   }
 
   /**
@@ -366,6 +584,9 @@ public class Elevator implements ElevatorInterface {
    * If a request is received to processRequests and the model.elevator
    * is not on the first floor or the top floor then and exception
    * will be thrown.
+   * The per-floor load is counted but not checked here: the trips start on
+   * different floors, so the batch itself must hold no more than maxOccupancy
+   * requests for every floor to stay within capacity.
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
@@ -378,6 +599,7 @@ public class Elevator implements ElevatorInterface {
       return;
     }
 
+    this.version++;
     this.processStopRequests(requests);
     if (this.currentFloor == 0) {
       this.direction = Direction.UP;
@@ -388,11 +610,154 @@ public class Elevator implements ElevatorInterface {
 
   }
 
+  /**
+   * Estimate how many steps the model.elevator needs to arrive at a floor while
+   * travelling in the given direction, without turning around on the way.
+   * The estimate counts the remaining door or wait time, one step per floor and
+   * the time spent at every stop on the way. A model.elevator that will be full
+   * when it leaves the floor cannot take on anyone there, so it gets no estimate.
+   *
+   * @param floor     the floor to arrive at.
+   * @param direction the direction the model.elevator must be travelling in, UP or DOWN.
+   * @return the number of steps, or -1 if the model.elevator will not pass the floor
+   *     in that direction on this run or has no room left there.
+   */
+  @Override
+  public int getEstimatedTicksTo(int floor, Direction direction) {
+    if (this.outOfService || !this.isAhead(floor, direction)
+        || this.isFullLeaving(floor, direction)) {
+      return -1;
+    }
+    int ticks = this.doorClosed ? this.stopWaitTimeLeft : this.doorOpenTimeLeft;
+    if (direction == Direction.UP) {
+      return ticks + floor - this.currentFloor
+          + STOP_TIME_TOTAL * FloorBitSet.countRange(this.floorRequests, this.currentFloor, floor);
+    }
+    return ticks + this.currentFloor - floor
+        + STOP_TIME_TOTAL * FloorBitSet.countRange(this.floorRequests, floor + 1,
+            this.currentFloor + 1);
+  }
+
+  /**
+   * Add a request to the current run of a moving model.elevator. The request is
+   * accepted only if the model.elevator is travelling in the direction of the request,
+   * has not yet passed its start floor and has room for one more passenger on every
+   * floor of the trip.
+   * Requests for an model.elevator waiting at the top or bottom go
+   * through {@link #processRequests(List)} instead.
+   *
+   * @param request the request to add.
+   * @return true if the stops were added, false if the request was refused.
+   */
+  @Override
+  public boolean addStopRequest(Request request) {
+    if (this.outOfService || this.stopWaitTimeLeft > 0) {
+      return false;
+    }
+    int start = request.getStartFloor();
+    int end = request.getEndFloor();
+    Direction requestDirection = start < end ? Direction.UP : Direction.DOWN;
+    if (this.direction != requestDirection || !this.isAhead(start, requestDirection)
+        || !this.hasRoom(start, end)) {
+      return false;
+    }
+
+    this.version++;
+    long[] stops = writableFloorRequests();
+    FloorBitSet.set(stops, start);
+    FloorBitSet.set(stops, end);
+    this.addToManifest(request);
+    return true;
+  }
+
+  /**
+   * Check whether one more passenger fits on every floor between two floors.
+   *
+   * @param start the start floor of the trip.
+   * @param end   the end floor of the trip.
+   * @return true if the load stays below maxOccupancy for the whole trip.
+   */
+  private boolean hasRoom(int start, int end) {
+    for (int segment = Math.min(start, end); segment < Math.max(start, end); segment++) {
+      if (this.segmentLoad[segment] >= this.maxOccupancy) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check whether the model.elevator will be full when it leaves a floor in the given
+   * direction.
+   *
+   * @param floor     the floor.
+   * @param direction the direction, UP or DOWN.
+   * @return true if nobody else fits on the floor after this one.
+   */
+  private boolean isFullLeaving(int floor, Direction direction) {
+    int segment = direction == Direction.UP ? floor : floor - 1;
+    return segment >= 0 && segment < this.segmentLoad.length
+        && this.segmentLoad[segment] >= this.maxOccupancy;
+  }
+
+  /**
+   * Count one passenger on, or off, every floor between the ends of a trip.
+   *
+   * @param request the trip.
+   * @param delta   1 when the passenger is taken on, -1 when dropped off.
+   */
+  private void load(Request request, int delta) {
+    int from = Math.min(request.getStartFloor(), request.getEndFloor());
+    int to = Math.max(request.getStartFloor(), request.getEndFloor());
+    for (int segment = from; segment < to; segment++) {
+      this.segmentLoad[segment] += delta;
+    }
+  }
+
+  /**
+   * Count floors travelled together with the passengers on board.
+   *
+   * @param floors the number of floors moved.
+   */
+  private void travel(int floors) {
+    this.floorsTravelled += floors;
+    this.passengerFloors += (long) floors * this.ridingCount;
+  }
+
+  /**
+   * Check whether the model.elevator will still pass a floor travelling in the given
+   * direction, either because it is moving that way or because it waits at the
+   * end of the shaft where it will set off that way.
+   * The current floor only counts while the door is closed and the
+   * model.elevator has not started waiting, as it can still stop there.
+   *
+   * @param floor     the floor.
+   * @param direction the direction, UP or DOWN.
+   * @return true if the floor lies ahead.
+   */
+  private boolean isAhead(int floor, Direction direction) {
+    boolean canStopHere = this.doorClosed && this.stopWaitTimeLeft == 0;
+    if (direction == Direction.UP) {
+      boolean goingUp = this.direction == Direction.UP
+          || (this.direction == Direction.STOPPED && this.currentFloor == 0);
+      return goingUp && (floor > this.currentFloor
+          || (floor == this.currentFloor && canStopHere));
+    }
+    if (direction == Direction.DOWN) {
+      boolean goingDown = this.direction == Direction.DOWN
+          || (this.direction == Direction.STOPPED && this.currentFloor == this.maxFloor - 1);
+      return goingDown && (floor < this.currentFloor
+          || (floor == this.currentFloor && canStopHere));
+    }
+    return false;
+  }
+
   /**
    * Take the model.elevator out of service.
    */
   @Override
   public void takeOutOfService() {
+    this.version++;
     this.clearStopRequests();
     this.takingRequests = false;
     this.direction = Direction.DOWN;
@@ -416,22 +781,185 @@ public class Elevator implements ElevatorInterface {
   private void processStopRequests(List<Request> requests) {
     clearStopRequests();
 
-    for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+    long[] stops = writableFloorRequests();
+    // indexed, the dispatchers hand over the same list on every trip
+    for (int i = 0; i < requests.size(); i++) {
+      Request request = requests.get(i);
+      FloorBitSet.set(stops, request.getStartFloor());
+      FloorBitSet.set(stops, request.getEndFloor());
+      this.addToManifest(request);
     }
     // if the model.elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
     this.stopWaitTimeLeft = 0;
   }
 
+  /**
+   * Add a request to the passengers waiting for this model.elevator.
+   *
+   * @param request the request.
+   */
+  private void addToManifest(Request request) {
+    if (this.waitingCount == this.waiting.length) {
+      this.waiting = Arrays.copyOf(this.waiting, this.waiting.length * 2);
+    }
+    this.waiting[this.waitingCount++] = request;
+    this.load(request, 1);
+  }
+
+  /**
+   * Let passengers off and on at the current floor when the door opens.
+   * Everyone on board for this floor gets off and everyone waiting here gets on.
+   */
+  private void exchangePassengers() {
+    int floor = this.currentFloor;
+    for (int i = this.ridingCount - 1; i >= 0; i--) {
+      if (this.riding[i].getEndFloor() == floor) {
+        this.load(this.riding[i], -1);
+        this.droppedOff = append(this.droppedOff, this.droppedOffCount++, this.riding[i]);
+        this.riding[i] = this.riding[--this.ridingCount];
+        this.riding[this.ridingCount] = null;
+      }
+    }
+    for (int i = this.waitingCount - 1; i >= 0; i--) {
+      if (this.waiting[i].getStartFloor() == floor) {
+        this.pickedUp = append(this.pickedUp, this.pickedUpCount++, this.waiting[i]);
+        this.riding = append(this.riding, this.ridingCount++, this.waiting[i]);
+        this.waiting[i] = this.waiting[--this.waitingCount];
+        this.waiting[this.waitingCount] = null;
+      }
+    }
+  }
+
+  /**
+   * Store a request at an index, growing the array if needed.
+   *
+   * @param array   the array.
+   * @param index   the index.
+   * @param request the request.
+   * @return the array, or its larger copy.
+   */
+  static Request[] append(Request[] array, int index, Request request) {
+    if (index == array.length) {
+      array = Arrays.copyOf(array, array.length * 2);
+    }
+    array[index] = request;
+    return array;
+  }
+
+  /**
+   * Forget every passenger, along with the stop requests they made.
+   */
+  private void clearManifest() {
+    Arrays.fill(this.waiting, 0, this.waitingCount, null);
+    Arrays.fill(this.riding, 0, this.ridingCount, null);
+    this.waitingCount = 0;
+    this.ridingCount = 0;
+    Arrays.fill(this.segmentLoad, 0);
+  }
+
+  /**
+   * Hand the passengers picked up and dropped off on the last step to a sink.
+   * Events that are not drained before the next step are dropped.
+   *
+   * @param sink the receiver of the events.
+   */
+  @Override
+  public void drainPassengerEvents(PassengerEventSink sink) {
+    for (int i = 0; i < this.droppedOffCount; i++) {
+      sink.droppedOff(this.droppedOff[i]);
+      this.droppedOff[i] = null;
+    }
+    for (int i = 0; i < this.pickedUpCount; i++) {
+      sink.pickedUp(this.pickedUp[i]);
+      this.pickedUp[i] = null;
+    }
+    this.droppedOffCount = 0;
+    this.pickedUpCount = 0;
+  }
+
+  /**
+   * Return the number of passengers on board.
+   *
+   * @return the number of passengers on board.
+   */
+  @Override
+  public int getPassengerCount() {
+    return this.ridingCount;
+  }
+
+  /**
+   * Return the number of passengers assigned to this model.elevator who have not boarded.
+   *
+   * @return the number of waiting passengers.
+   */
+  @Override
+  public int getWaitingCount() {
+    return this.waitingCount;
+  }
+
+  /**
+   * Return a request of a passenger waiting for this model.elevator.
+   *
+   * @param index the index, below the waiting count.
+   * @return the request.
+   * @throws IndexOutOfBoundsException if no passenger waits at that index.
+   */
+  @Override
+  public Request getWaitingRequest(int index) {
+    if (index < 0 || index >= this.waitingCount) {
+      throw new IndexOutOfBoundsException("No waiting passenger at " + index);
+    }
+    return this.waiting[index];
+  }
+
+  /**
+   * Return the number of floors the model.elevator has travelled, in and out of service.
+   *
+   * @return the floors travelled.
+   */
+  @Override
+  public long getFloorsTravelled() {
+    return this.floorsTravelled;
+  }
+
+  /**
+   * Return the number of passengers on board summed over every floor travelled.
+   *
+   * @return the passenger floors carried.
+   */
+  @Override
+  public long getPassengerFloors() {
+    return this.passengerFloors;
+  }
+
   /**
    * Clear the Floor Requests.
+   * The passengers who made them are cleared from the manifest as well.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
+    this.clearManifest();
+    if (this.floorRequestsShared) {
+      // no need to copy bits that are about to be cleared
+      this.floorRequests = FloorBitSet.create(this.maxFloor);
+      this.floorRequestsShared = false;
+    } else {
+      FloorBitSet.clearAll(this.floorRequests);
+    }
+  }
+
+  /**
+   * Return the floor requests for writing, copying them first if the
+   * current array is shared with a report.
+   *
+   * @return the floor requests owned by this model.elevator.
+   */
+  private long[] writableFloorRequests() {
+    if (this.floorRequestsShared) {
+      this.floorRequests = this.floorRequests.clone();
+      this.floorRequestsShared = false;
     }
+    return this.floorRequests;
   }
 
   /**
@@ -441,45 +969,131 @@ public class Elevator implements ElevatorInterface {
    */
   @Override
   public String toString() {
-    ElevatorReport report = new ElevatorReport(
-        this.id,
-        this.currentFloor,
-        this.direction,
-        this.doorClosed,
-        this.floorRequests,
-        this.doorOpenTimeLeft,
-        this.stopWaitTimeLeft,
-        this.outOfService,
-        this.takingRequests);
+    return getElevatorStatus().toString();
+  }
+
+
+  /**
+   * Return the change counter of the model.elevator.
+   *
+   * @return a number that changes whenever the state of the model.elevator changes.
+   */
+  @Override
+  public long getVersion() {
+    return this.version;
+  }
 
-    return report.toString();
+  /**
+   * Write the full state of the model.elevator to a binary stream: position,
+   * direction, door and wait timers, stops, service flags, travel counters and
+   * the passenger manifest. Events not yet drained are not part of the state.
+   *
+   * @param out the stream.
+   * @throws IOException if the stream cannot be written.
+   */
+  @Override
+  public void writeState(DataOutput out) throws IOException {
+    out.writeInt(this.maxFloor);
+    out.writeInt(this.maxOccupancy);
+    out.writeLong(this.version);
+    out.writeInt(this.currentFloor);
+    out.writeByte(this.direction.ordinal());
+    out.writeBoolean(this.doorClosed);
+    out.writeInt(this.doorOpenTimeLeft);
+    out.writeInt(this.stopWaitTimeLeft);
+    out.writeBoolean(this.takingRequests);
+    out.writeBoolean(this.outOfService);
+    out.writeLong(this.floorsTravelled);
+    out.writeLong(this.passengerFloors);
+    for (long word : this.floorRequests) {
+      out.writeLong(word);
+    }
+    out.writeInt(this.waitingCount);
+    for (int i = 0; i < this.waitingCount; i++) {
+      this.waiting[i].writeTo(out);
+    }
+    out.writeInt(this.ridingCount);
+    for (int i = 0; i < this.ridingCount; i++) {
+      this.riding[i].writeTo(out);
+    }
   }
 
+  /**
+   * Replace the state of the model.elevator with one written by
+   * {@link #writeState(DataOutput)}. The id is kept.
+   *
+   * @param in the stream.
+   * @throws IOException if the stream cannot be read or was written by an
+   *     model.elevator with another number of floors or occupancy.
+   */
+  @Override
+  public void readState(DataInput in) throws IOException {
+    if (in.readInt() != this.maxFloor || in.readInt() != this.maxOccupancy) {
+      throw new IOException("The checkpoint is for an model.elevator of another size.");
+    }
+    this.version = in.readLong();
+    this.currentFloor = in.readInt();
+    int directionIndex = in.readByte();
+    if (this.currentFloor < 0 || this.currentFloor >= this.maxFloor
+        || directionIndex < 0 || directionIndex >= Direction.values().length) {
+      throw new IOException("The checkpoint holds an invalid model.elevator state.");
+    }
+    this.direction = Direction.values()[directionIndex];
+    this.doorClosed = in.readBoolean();
+    this.doorOpenTimeLeft = in.readInt();
+    this.stopWaitTimeLeft = in.readInt();
+    this.takingRequests = in.readBoolean();
+    this.outOfService = in.readBoolean();
+    this.floorsTravelled = in.readLong();
+    this.passengerFloors = in.readLong();
+    this.floorRequests = FloorBitSet.create(this.maxFloor);
+    this.floorRequestsShared = false;
+    for (int i = 0; i < this.floorRequests.length; i++) {
+      this.floorRequests[i] = in.readLong();
+    }
+
+    this.clearManifest();
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      this.addToManifest(Request.readFrom(in));
+    }
+    count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      Request request = Request.readFrom(in);
+      this.riding = append(this.riding, this.ridingCount++, request);
+      this.load(request, 1);
+    }
+    this.pickedUpCount = 0;
+    this.droppedOffCount = 0;
+    this.lastReport = null;
+  }
 
   /**
    * Generate a report for the model.elevator in ElevatorReport format.
+   * The report is immutable. While the model.elevator does not change the same
+   * report is returned, and a new report shares the floor requests with the
+   * model.elevator instead of copying them.
    *
    * @return an ElevatorReport object.
    */
   @Override
   public ElevatorReport getElevatorStatus() {
-    return new ElevatorReport(
+    if (this.lastReport != null && this.lastReport.getVersion() == this.version) {
+      return this.lastReport;
+    }
+    this.floorRequestsShared = true;
+    this.lastReport = new ElevatorReport(
+        this.version,
         this.id,
         this.currentFloor,
         this.direction,
         this.doorClosed,
         this.floorRequests,
+        this.maxFloor,
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
         this.takingRequests);
-  }
-
-  /**
-   * Helper method to clear the static counter.
-   * needed for unit testing.
-   */
-  public static void resetStaticCounter() {
-    newElevatorId = 0;
+    return this.lastReport;
   }
 }
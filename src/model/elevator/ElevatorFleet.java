@@ -0,0 +1,873 @@
+package model.elevator;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import model.building.enums.Direction;
+import model.scanerzus.Request;
+
+/**
+ * A fleet of elevators stored as a structure of arrays. Instead of one {@link Elevator}
+ * object per car, the fleet keeps every field in a primitive array indexed by car: floors,
+ * directions, timers and flags sit next to each other, and the stop sets of all cars are
+ * packed back to back in one {@code long[]}. {@link #step()} and {@link #advance(int)} walk
+ * those arrays in a single loop, which suits fleets of thousands of cars.
+ *
+ * <p>Each car behaves exactly like an {@link Elevator}: same rules, same versions, same
+ * reports and the same checkpoint format. {@link #getCars()} returns one lightweight
+ * {@link ElevatorInterface} view per car for callers that work with single elevators, such
+ * as the dispatch strategies.
+ */
+public class ElevatorFleet {
+  /**
+   * Flag bits, one byte per car.
+   */
+  private static final int DOOR_CLOSED = 1;
+  private static final int TAKING_REQUESTS = 2;
+  private static final int OUT_OF_SERVICE = 4;
+
+  /**
+   * Directions are stored as their ordinal.
+   */
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final byte UP = (byte) Direction.UP.ordinal();
+  private static final byte DOWN = (byte) Direction.DOWN.ordinal();
+  private static final byte STOPPED = (byte) Direction.STOPPED.ordinal();
+
+  private final int size;
+  private final int maxFloor;
+  private final int maxOccupancy;
+  private final int words;
+
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final int[] doorOpenTimeLeft;
+  private final int[] stopWaitTimeLeft;
+  private final byte[] flags;
+  private final int[] segmentLoad;
+  private final long[] floorsTravelled;
+  private final long[] passengerFloors;
+  private final long[] version;
+  private final long[] floorRequests;
+
+  // the passenger manifests are only touched when a door opens
+  private final Request[][] waiting;
+  private final int[] waitingCount;
+  private final Request[][] riding;
+  private final int[] ridingCount;
+  private final Request[][] pickedUp;
+  private final int[] pickedUpCount;
+  private final Request[][] droppedOff;
+  private final int[] droppedOffCount;
+
+  private final ElevatorReport[] lastReport;
+  private final List<ElevatorInterface> cars;
+
+  /**
+   * Constructs a fleet of elevators, all out of service at the ground floor. The cars
+   * have the ids 0 to size - 1.
+   *
+   * @param size         the number of cars.
+   * @param maxFloor     the total number of floors in the model.building
+   *                     must be at least 3
+   * @param maxOccupancy the maximum number of people that can fit in a car
+   *                     must be at least 3
+   * @throws IllegalArgumentException if any argument is out of range
+   */
+  public ElevatorFleet(int size, int maxFloor, int maxOccupancy) {
+    if (size < 0) {
+      throw new IllegalArgumentException("size cannot be negative");
+    }
+    if (maxFloor < 3) {
+      throw new IllegalArgumentException("maxFloor must be at least 3");
+    }
+    if (maxOccupancy < 3) {
+      throw new IllegalArgumentException("maxOccupancy must be at least 3");
+    }
+    this.size = size;
+    this.maxFloor = maxFloor;
+    this.maxOccupancy = maxOccupancy;
+    this.words = FloorBitSet.wordCount(maxFloor);
+
+    this.currentFloor = new int[size];
+    this.direction = new byte[size];
+    this.doorOpenTimeLeft = new int[size];
+    this.stopWaitTimeLeft = new int[size];
+    this.flags = new byte[size];
+    this.segmentLoad = new int[size * (maxFloor - 1)];
+    this.floorsTravelled = new long[size];
+    this.passengerFloors = new long[size];
+    this.version = new long[size];
+    this.floorRequests = new long[size * words];
+    this.waiting = new Request[size][];
+    this.waitingCount = new int[size];
+    this.riding = new Request[size][];
+    this.ridingCount = new int[size];
+    this.pickedUp = new Request[size][];
+    this.pickedUpCount = new int[size];
+    this.droppedOff = new Request[size][];
+    this.droppedOffCount = new int[size];
+    this.lastReport = new ElevatorReport[size];
+
+    List<ElevatorInterface> views = new ArrayList<>(size);
+    for (int car = 0; car < size; car++) {
+      this.direction[car] = STOPPED;
+      this.flags[car] = DOOR_CLOSED | OUT_OF_SERVICE;
+      this.waiting[car] = new Request[Elevator.INITIAL_MANIFEST];
+      this.riding[car] = new Request[Elevator.INITIAL_MANIFEST];
+      this.pickedUp[car] = new Request[Elevator.INITIAL_MANIFEST];
+      this.droppedOff[car] = new Request[Elevator.INITIAL_MANIFEST];
+      views.add(new Car(car));
+    }
+    this.cars = Collections.unmodifiableList(views);
+  }
+
+  /**
+   * Return the number of cars.
+   *
+   * @return the number of cars.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Return one view per car, in id order. Calling a method on a view acts on that car
+   * of the fleet.
+   *
+   * @return the unmodifiable list of cars.
+   */
+  public List<ElevatorInterface> getCars() {
+    return this.cars;
+  }
+
+  /**
+   * Move every car one step, as {@link Elevator#step()} does for a single car.
+   */
+  public void step() {
+    for (int car = 0; car < this.size; car++) {
+      step(car);
+    }
+  }
+
+  /**
+   * Move every car several steps at once, as {@link Elevator#advance(int)} does for
+   * a single car.
+   *
+   * @param ticks the number of steps, between 1 and {@link #getTicksToNextEvent()}.
+   * @throws IllegalArgumentException if ticks is out of range for any car.
+   */
+  public void advance(int ticks) throws IllegalArgumentException {
+    for (int car = 0; car < this.size; car++) {
+      advance(car, ticks);
+    }
+  }
+
+  /**
+   * Return how many steps every car can take in one go with {@link #advance(int)}.
+   *
+   * @return the smallest number of steps to the next event of any car, at least 1,
+   *     or Integer.MAX_VALUE if no car will change any more.
+   */
+  public int getTicksToNextEvent() {
+    int ticks = Integer.MAX_VALUE;
+    for (int car = 0; car < this.size && ticks > 1; car++) {
+      ticks = Math.min(ticks, getTicksToNextEvent(car));
+    }
+    return ticks;
+  }
+
+  /**
+   * Hand the passengers every car picked up and dropped off on the last step to a sink,
+   * car by car in id order.
+   *
+   * @param sink the receiver of the events.
+   */
+  public void drainPassengerEvents(PassengerEventSink sink) {
+    for (int car = 0; car < this.size; car++) {
+      if (this.droppedOffCount[car] != 0 || this.pickedUpCount[car] != 0) {
+        drainPassengerEvents(car, sink);
+      }
+    }
+  }
+
+  /**
+   * Move one car one step.
+   *
+   * @param car the car.
+   */
+  private void step(int car) {
+    // events of the previous step that nobody drained are dropped
+    this.pickedUpCount[car] = 0;
+    this.droppedOffCount[car] = 0;
+
+    int carFlags = this.flags[car];
+    int floor = this.currentFloor[car];
+    // a car parked out of service with its door open does not change
+    if ((carFlags & OUT_OF_SERVICE) != 0 && floor == 0 && (carFlags & DOOR_CLOSED) == 0) {
+      return;
+    }
+    this.version[car]++;
+
+    if ((carFlags & OUT_OF_SERVICE) != 0) {
+      stepOutOfService(car);
+      return;
+    }
+    if ((carFlags & DOOR_CLOSED) == 0) {
+      stepDoorOpen(car);
+      return;
+    }
+    if (this.stopWaitTimeLeft[car] > 0) {
+      stepTopOrBottom(car);
+      return;
+    }
+
+    int offset = car * this.words;
+    if (FloorBitSet.get(this.floorRequests, offset, floor)) {
+      this.flags[car] = (byte) (carFlags & ~DOOR_CLOSED);
+      this.doorOpenTimeLeft[car] = Elevator.DOOR_OPEN_TIME_TOTAL;
+      FloorBitSet.clear(this.floorRequests, offset, floor);
+      exchangePassengers(car);
+      return;
+    }
+
+    byte carDirection = this.direction[car];
+    if ((floor == 0 && carDirection == DOWN)
+        || (floor == this.maxFloor - 1 && carDirection == UP)) {
+      this.direction[car] = STOPPED;
+      this.stopWaitTimeLeft[car] = Elevator.STOP_WAIT_TIME_TOTAL;
+      this.flags[car] = (byte) (carFlags | TAKING_REQUESTS);
+      return;
+    }
+
+    if (carDirection == UP) {
+      this.currentFloor[car] = floor + 1;
+      travel(car, 1);
+    } else if (carDirection == DOWN) {
+      this.currentFloor[car] = floor - 1;
+      travel(car, 1);
+    }
+  }
+
+  /**
+   * Step a car that is out of service: open the door once it is down, otherwise
+   * finish the door cycle and head down.
+   *
+   * @param car the car.
+   */
+  private void stepOutOfService(int car) {
+    if (this.currentFloor[car] == 0) {
+      this.flags[car] &= ~DOOR_CLOSED;
+      FloorBitSet.clear(this.floorRequests, car * this.words, 0);
+      this.direction[car] = STOPPED;
+      return;
+    }
+    if ((this.flags[car] & DOOR_CLOSED) == 0) {
+      stepDoorOpen(car);
+      return;
+    }
+    this.direction[car] = DOWN;
+    this.currentFloor[car]--;
+    travel(car, 1);
+  }
+
+  /**
+   * Count down the door timer of a car.
+   *
+   * @param car the car.
+   */
+  private void stepDoorOpen(int car) {
+    if (--this.doorOpenTimeLeft[car] == 0) {
+      this.flags[car] |= DOOR_CLOSED;
+    }
+  }
+
+  /**
+   * Count down the wait at the top or bottom of a car.
+   *
+   * @param car the car.
+   */
+  private void stepTopOrBottom(int car) {
+    if (--this.stopWaitTimeLeft[car] == 0) {
+      this.flags[car] &= ~TAKING_REQUESTS;
+      if (this.currentFloor[car] == 0) {
+        this.direction[car] = UP;
+      } else if (this.currentFloor[car] == this.maxFloor - 1) {
+        this.direction[car] = DOWN;
+      }
+    }
+  }
+
+  /**
+   * Return how many steps one car can take in one go.
+   *
+   * @param car the car.
+   * @return the number of steps to the next event of the car, see
+   *     {@link Elevator#getTicksToNextEvent()}.
+   */
+  private int getTicksToNextEvent(int car) {
+    int carFlags = this.flags[car];
+    int floor = this.currentFloor[car];
+    boolean doorClosed = (carFlags & DOOR_CLOSED) != 0;
+    if ((carFlags & OUT_OF_SERVICE) != 0) {
+      if (floor == 0) {
+        return doorClosed ? 1 : Integer.MAX_VALUE;
+      }
+      if (!doorClosed) {
+        return Math.max(1, this.doorOpenTimeLeft[car]);
+      }
+      return floor;
+    }
+    if (!doorClosed) {
+      return Math.max(1, this.doorOpenTimeLeft[car]);
+    }
+    if (this.stopWaitTimeLeft[car] > 0) {
+      return this.stopWaitTimeLeft[car];
+    }
+
+    int offset = car * this.words;
+    byte carDirection = this.direction[car];
+    if (FloorBitSet.get(this.floorRequests, offset, floor)
+        || (floor == 0 && carDirection == DOWN)
+        || (floor == this.maxFloor - 1 && carDirection == UP)) {
+      return 1;
+    }
+    if (carDirection == UP) {
+      int stop = FloorBitSet.nextSetBit(this.floorRequests, offset, this.words, floor + 1);
+      int target = stop < 0 ? this.maxFloor - 1 : Math.min(stop, this.maxFloor - 1);
+      return target - floor;
+    } else if (carDirection == DOWN) {
+      int stop = FloorBitSet.previousSetBit(this.floorRequests, offset, this.words, floor - 1);
+      return floor - Math.max(stop, 0);
+    }
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * Move one car several steps at once.
+   *
+   * @param car the car.
+   * @param ticks the number of steps, between 1 and the steps to its next event.
+   * @throws IllegalArgumentException if ticks is out of range.
+   */
+  private void advance(int car, int ticks) throws IllegalArgumentException {
+    int limit = getTicksToNextEvent(car);
+    if (ticks < 1 || ticks > limit) {
+      throw new IllegalArgumentException("ticks must be between 1 and " + limit);
+    }
+    if (limit == Integer.MAX_VALUE) {
+      // nothing will change; a single step keeps the version in step with step()
+      step(car);
+      return;
+    }
+
+    // all but the last step only count down or move, the last one may trigger the event
+    int quiet = ticks - 1;
+    if (quiet > 0) {
+      this.version[car]++;
+      int carFlags = this.flags[car];
+      boolean outOfService = (carFlags & OUT_OF_SERVICE) != 0;
+      if ((carFlags & DOOR_CLOSED) == 0) {
+        this.doorOpenTimeLeft[car] -= quiet;
+      } else if (!outOfService && this.stopWaitTimeLeft[car] > 0) {
+        this.stopWaitTimeLeft[car] -= quiet;
+      } else if (outOfService || this.direction[car] == DOWN) {
+        this.direction[car] = DOWN;
+        this.currentFloor[car] -= quiet;
+        travel(car, quiet);
+      } else {
+        this.currentFloor[car] += quiet;
+        travel(car, quiet);
+      }
+    }
+    step(car);
+  }
+
+  /**
+   * Let passengers off and on at the current floor of a car when its door opens.
+   *
+   * @param car the car.
+   */
+  private void exchangePassengers(int car) {
+    int floor = this.currentFloor[car];
+    Request[] onBoard = this.riding[car];
+    for (int i = this.ridingCount[car] - 1; i >= 0; i--) {
+      if (onBoard[i].getEndFloor() == floor) {
+        load(car, onBoard[i], -1);
+        this.droppedOff[car] =
+            Elevator.append(this.droppedOff[car], this.droppedOffCount[car]++, onBoard[i]);
+        onBoard[i] = onBoard[--this.ridingCount[car]];
+        onBoard[this.ridingCount[car]] = null;
+      }
+    }
+    Request[] atStops = this.waiting[car];
+    for (int i = this.waitingCount[car] - 1; i >= 0; i--) {
+      if (atStops[i].getStartFloor() == floor) {
+        this.pickedUp[car] =
+            Elevator.append(this.pickedUp[car], this.pickedUpCount[car]++, atStops[i]);
+        this.riding[car] = Elevator.append(this.riding[car], this.ridingCount[car]++, atStops[i]);
+        atStops[i] = atStops[--this.waitingCount[car]];
+        atStops[this.waitingCount[car]] = null;
+      }
+    }
+  }
+
+  /**
+   * Hand the passenger events of one car to a sink.
+   *
+   * @param car the car.
+   * @param sink the receiver of the events.
+   */
+  private void drainPassengerEvents(int car, PassengerEventSink sink) {
+    Request[] off = this.droppedOff[car];
+    for (int i = 0; i < this.droppedOffCount[car]; i++) {
+      sink.droppedOff(off[i]);
+      off[i] = null;
+    }
+    Request[] on = this.pickedUp[car];
+    for (int i = 0; i < this.pickedUpCount[car]; i++) {
+      sink.pickedUp(on[i]);
+      on[i] = null;
+    }
+    this.droppedOffCount[car] = 0;
+    this.pickedUpCount[car] = 0;
+  }
+
+  /**
+   * Add a request to the passengers waiting for a car.
+   *
+   * @param car the car.
+   * @param request the request.
+   */
+  private void addToManifest(int car, Request request) {
+    this.waiting[car] = Elevator.append(this.waiting[car], this.waitingCount[car]++, request);
+    load(car, request, 1);
+  }
+
+  /**
+   * Count one passenger on, or off, every floor between the ends of a trip of a car.
+   *
+   * @param car the car.
+   * @param request the trip.
+   * @param delta 1 when the passenger is taken on, -1 when dropped off.
+   */
+  private void load(int car, Request request, int delta) {
+    int base = car * (this.maxFloor - 1);
+    int from = Math.min(request.getStartFloor(), request.getEndFloor());
+    int to = Math.max(request.getStartFloor(), request.getEndFloor());
+    for (int segment = base + from; segment < base + to; segment++) {
+      this.segmentLoad[segment] += delta;
+    }
+  }
+
+  /**
+   * Count floors travelled by a car together with the passengers on board.
+   *
+   * @param car the car.
+   * @param floors the number of floors moved.
+   */
+  private void travel(int car, int floors) {
+    this.floorsTravelled[car] += floors;
+    this.passengerFloors[car] += (long) floors * this.ridingCount[car];
+  }
+
+  /**
+   * Forget every passenger of a car and clear its stops.
+   *
+   * @param car the car.
+   */
+  private void clearStopRequests(int car) {
+    Arrays.fill(this.waiting[car], 0, this.waitingCount[car], null);
+    Arrays.fill(this.riding[car], 0, this.ridingCount[car], null);
+    this.waitingCount[car] = 0;
+    this.ridingCount[car] = 0;
+    int base = car * (this.maxFloor - 1);
+    Arrays.fill(this.segmentLoad, base, base + this.maxFloor - 1, 0);
+    int offset = car * this.words;
+    Arrays.fill(this.floorRequests, offset, offset + this.words, 0L);
+  }
+
+  /**
+   * A view of one car of the fleet.
+   */
+  private final class Car implements ElevatorInterface {
+    private final int car;
+    private final int offset;
+
+    Car(int car) {
+      this.car = car;
+      this.offset = car * words;
+    }
+
+    @Override
+    public int getElevatorId() {
+      return this.car;
+    }
+
+    @Override
+    public int getMaxFloor() {
+      return maxFloor;
+    }
+
+    @Override
+    public int getMaxOccupancy() {
+      return maxOccupancy;
+    }
+
+    @Override
+    public int getCurrentFloor() {
+      return currentFloor[this.car];
+    }
+
+    @Override
+    public Direction getDirection() {
+      return DIRECTIONS[direction[this.car]];
+    }
+
+    @Override
+    public boolean isDoorClosed() {
+      return (flags[this.car] & DOOR_CLOSED) != 0;
+    }
+
+    @Override
+    public boolean[] getFloorRequests() {
+      return FloorBitSet.toBooleanArray(copyFloorRequests(), maxFloor);
+    }
+
+    @Override
+    public void copyFloorRequests(long[] words, int offset) {
+      System.arraycopy(floorRequests, this.offset, words, offset, ElevatorFleet.this.words);
+    }
+
+    @Override
+    public int getStopCount() {
+      return FloorBitSet.count(floorRequests, this.offset, words);
+    }
+
+    @Override
+    public int getNextStop() {
+      int floor = currentFloor[this.car];
+      if (direction[this.car] == UP) {
+        return FloorBitSet.nextSetBit(floorRequests, this.offset, words, floor);
+      } else if (direction[this.car] == DOWN) {
+        return FloorBitSet.previousSetBit(floorRequests, this.offset, words, floor);
+      }
+      return FloorBitSet.get(floorRequests, this.offset, floor) ? floor : -1;
+    }
+
+    @Override
+    public void start() {
+      version[this.car]++;
+      flags[this.car] = DOOR_CLOSED | TAKING_REQUESTS;
+      clearStopRequests(this.car);
+      doorOpenTimeLeft[this.car] = 0;
+      stopWaitTimeLeft[this.car] = Elevator.STOP_WAIT_TIME_TOTAL;
+      direction[this.car] = UP;
+    }
+
+    @Override
+    public void takeOutOfService() {
+      version[this.car]++;
+      clearStopRequests(this.car);
+      flags[this.car] = (byte) ((flags[this.car] & ~TAKING_REQUESTS) | OUT_OF_SERVICE);
+      direction[this.car] = DOWN;
+      stopWaitTimeLeft[this.car] = 0;
+    }
+
+    @Override
+    public void step() {
+      ElevatorFleet.this.step(this.car);
+    }
+
+    @Override
+    public int getTicksToNextEvent() {
+      return ElevatorFleet.this.getTicksToNextEvent(this.car);
+    }
+
+    @Override
+    public void advance(int ticks) throws IllegalArgumentException {
+      ElevatorFleet.this.advance(this.car, ticks);
+    }
+
+    @Override
+    public void processRequests(List<Request> requests) throws IllegalStateException {
+      int floor = currentFloor[this.car];
+      if (floor != 0 && floor != maxFloor - 1) {
+        throw new IllegalStateException("Elevator cannot process requests "
+            + "unless it is at the bottom or top floor.");
+      }
+      if (requests.isEmpty()) {
+        return;
+      }
+
+      version[this.car]++;
+      clearStopRequests(this.car);
+      // the load is counted, not checked: a batch of at most maxOccupancy trips fits
+      // indexed, the dispatchers hand over the same list on every trip
+      for (int i = 0; i < requests.size(); i++) {
+        Request request = requests.get(i);
+        FloorBitSet.set(floorRequests, this.offset, request.getStartFloor());
+        FloorBitSet.set(floorRequests, this.offset, request.getEndFloor());
+        addToManifest(this.car, request);
+      }
+      stopWaitTimeLeft[this.car] = 0;
+      direction[this.car] = floor == 0 ? UP : DOWN;
+      flags[this.car] &= ~TAKING_REQUESTS;
+    }
+
+    @Override
+    public int getEstimatedTicksTo(int floor, Direction towards) {
+      int carFlags = flags[this.car];
+      if ((carFlags & OUT_OF_SERVICE) != 0 || !isAhead(floor, towards)
+          || isFullLeaving(floor, towards)) {
+        return -1;
+      }
+      int from = currentFloor[this.car];
+      int ticks = (carFlags & DOOR_CLOSED) != 0
+          ? stopWaitTimeLeft[this.car] : doorOpenTimeLeft[this.car];
+      if (towards == Direction.UP) {
+        return ticks + floor - from + Elevator.STOP_TIME_TOTAL
+            * FloorBitSet.countRange(floorRequests, this.offset, from, floor);
+      }
+      return ticks + from - floor + Elevator.STOP_TIME_TOTAL
+          * FloorBitSet.countRange(floorRequests, this.offset, floor + 1, from + 1);
+    }
+
+    @Override
+    public boolean addStopRequest(Request request) {
+      if ((flags[this.car] & OUT_OF_SERVICE) != 0 || stopWaitTimeLeft[this.car] > 0) {
+        return false;
+      }
+      int start = request.getStartFloor();
+      int end = request.getEndFloor();
+      Direction requestDirection = start < end ? Direction.UP : Direction.DOWN;
+      if (getDirection() != requestDirection || !isAhead(start, requestDirection)
+          || !hasRoom(start, end)) {
+        return false;
+      }
+
+      version[this.car]++;
+      FloorBitSet.set(floorRequests, this.offset, start);
+      FloorBitSet.set(floorRequests, this.offset, end);
+      addToManifest(this.car, request);
+      return true;
+    }
+
+    /**
+     * Check whether one more passenger fits on every floor of a trip, as
+     * {@link Elevator} does.
+     *
+     * @param start the start floor of the trip.
+     * @param end the end floor of the trip.
+     * @return true if the load stays below maxOccupancy for the whole trip.
+     */
+    private boolean hasRoom(int start, int end) {
+      int base = this.car * (maxFloor - 1);
+      for (int segment = Math.min(start, end); segment < Math.max(start, end); segment++) {
+        if (segmentLoad[base + segment] >= maxOccupancy) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Check whether the car will be full when it leaves a floor, as {@link Elevator} does.
+     *
+     * @param floor the floor.
+     * @param towards the direction, UP or DOWN.
+     * @return true if nobody else fits on the floor after this one.
+     */
+    private boolean isFullLeaving(int floor, Direction towards) {
+      int segment = towards == Direction.UP ? floor : floor - 1;
+      return segment >= 0 && segment < maxFloor - 1
+          && segmentLoad[this.car * (maxFloor - 1) + segment] >= maxOccupancy;
+    }
+
+    /**
+     * Check whether the car will still pass a floor travelling in the given direction,
+     * as {@link Elevator} does.
+     *
+     * @param floor the floor.
+     * @param towards the direction, UP or DOWN.
+     * @return true if the floor lies ahead.
+     */
+    private boolean isAhead(int floor, Direction towards) {
+      int from = currentFloor[this.car];
+      byte carDirection = direction[this.car];
+      boolean canStopHere = (flags[this.car] & DOOR_CLOSED) != 0
+          && stopWaitTimeLeft[this.car] == 0;
+      if (towards == Direction.UP) {
+        boolean goingUp = carDirection == UP || (carDirection == STOPPED && from == 0);
+        return goingUp && (floor > from || (floor == from && canStopHere));
+      }
+      if (towards == Direction.DOWN) {
+        boolean goingDown = carDirection == DOWN
+            || (carDirection == STOPPED && from == maxFloor - 1);
+        return goingDown && (floor < from || (floor == from && canStopHere));
+      }
+      return false;
+    }
+
+    @Override
+    public void drainPassengerEvents(PassengerEventSink sink) {
+      ElevatorFleet.this.drainPassengerEvents(this.car, sink);
+    }
+
+    @Override
+    public int getPassengerCount() {
+      return ridingCount[this.car];
+    }
+
+    @Override
+    public int getWaitingCount() {
+      return waitingCount[this.car];
+    }
+
+    @Override
+    public Request getWaitingRequest(int index) {
+      if (index < 0 || index >= waitingCount[this.car]) {
+        throw new IndexOutOfBoundsException("No waiting passenger at " + index);
+      }
+      return waiting[this.car][index];
+    }
+
+    @Override
+    public long getFloorsTravelled() {
+      return floorsTravelled[this.car];
+    }
+
+    @Override
+    public long getPassengerFloors() {
+      return passengerFloors[this.car];
+    }
+
+    @Override
+    public boolean isTakingRequests() {
+      return (flags[this.car] & TAKING_REQUESTS) != 0;
+    }
+
+    @Override
+    public long getVersion() {
+      return version[this.car];
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+      int carFlags = flags[this.car];
+      out.writeInt(maxFloor);
+      out.writeInt(maxOccupancy);
+      out.writeLong(version[this.car]);
+      out.writeInt(currentFloor[this.car]);
+      out.writeByte(direction[this.car]);
+      out.writeBoolean((carFlags & DOOR_CLOSED) != 0);
+      out.writeInt(doorOpenTimeLeft[this.car]);
+      out.writeInt(stopWaitTimeLeft[this.car]);
+      out.writeBoolean((carFlags & TAKING_REQUESTS) != 0);
+      out.writeBoolean((carFlags & OUT_OF_SERVICE) != 0);
+      out.writeLong(floorsTravelled[this.car]);
+      out.writeLong(passengerFloors[this.car]);
+      for (int i = this.offset; i < this.offset + words; i++) {
+        out.writeLong(floorRequests[i]);
+      }
+      out.writeInt(waitingCount[this.car]);
+      for (int i = 0; i < waitingCount[this.car]; i++) {
+        waiting[this.car][i].writeTo(out);
+      }
+      out.writeInt(ridingCount[this.car]);
+      for (int i = 0; i < ridingCount[this.car]; i++) {
+        riding[this.car][i].writeTo(out);
+      }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+      if (in.readInt() != maxFloor || in.readInt() != maxOccupancy) {
+        throw new IOException("The checkpoint is for an model.elevator of another size.");
+      }
+      version[this.car] = in.readLong();
+      int floor = in.readInt();
+      int directionIndex = in.readByte();
+      if (floor < 0 || floor >= maxFloor
+          || directionIndex < 0 || directionIndex >= DIRECTIONS.length) {
+        throw new IOException("The checkpoint holds an invalid model.elevator state.");
+      }
+      currentFloor[this.car] = floor;
+      direction[this.car] = (byte) directionIndex;
+      int carFlags = in.readBoolean() ? DOOR_CLOSED : 0;
+      doorOpenTimeLeft[this.car] = in.readInt();
+      stopWaitTimeLeft[this.car] = in.readInt();
+      carFlags |= in.readBoolean() ? TAKING_REQUESTS : 0;
+      carFlags |= in.readBoolean() ? OUT_OF_SERVICE : 0;
+      flags[this.car] = (byte) carFlags;
+      floorsTravelled[this.car] = in.readLong();
+      passengerFloors[this.car] = in.readLong();
+
+      clearStopRequests(this.car);
+      for (int i = this.offset; i < this.offset + words; i++) {
+        floorRequests[i] = in.readLong();
+      }
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        addToManifest(this.car, Request.readFrom(in));
+      }
+      count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        Request request = Request.readFrom(in);
+        riding[this.car] = Elevator.append(riding[this.car], ridingCount[this.car]++, request);
+        load(this.car, request, 1);
+      }
+      pickedUpCount[this.car] = 0;
+      droppedOffCount[this.car] = 0;
+      lastReport[this.car] = null;
+    }
+
+    /**
+     * Generate a report for the car. While the car does not change the same report is
+     * returned. The report holds its own copy of the stops, as they live in an array shared
+     * by the whole fleet.
+     *
+     * @return an ElevatorReport object.
+     */
+    @Override
+    public ElevatorReport getElevatorStatus() {
+      ElevatorReport report = lastReport[this.car];
+      if (report != null && report.getVersion() == version[this.car]) {
+        return report;
+      }
+      int carFlags = flags[this.car];
+      report = new ElevatorReport(
+          version[this.car],
+          this.car,
+          currentFloor[this.car],
+          DIRECTIONS[direction[this.car]],
+          (carFlags & DOOR_CLOSED) != 0,
+          copyFloorRequests(),
+          maxFloor,
+          doorOpenTimeLeft[this.car],
+          stopWaitTimeLeft[this.car],
+          (carFlags & OUT_OF_SERVICE) != 0,
+          (carFlags & TAKING_REQUESTS) != 0);
+      lastReport[this.car] = report;
+      return report;
+    }
+
+    /**
+     * Copy the stops of the car out of the fleet array.
+     *
+     * @return the stops, packed as in {@link FloorBitSet}.
+     */
+    private long[] copyFloorRequests() {
+      return Arrays.copyOfRange(floorRequests, this.offset, this.offset + words);
+    }
+
+    @Override
+    public String toString() {
+      return getElevatorStatus().toString();
+    }
+  }
+}
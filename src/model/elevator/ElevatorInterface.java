@@ -1,5 +1,8 @@
 package model.elevator;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import model.building.enums.Direction;
 import model.scanerzus.Request;
@@ -64,6 +67,30 @@ public interface ElevatorInterface {
    */
   boolean[] getFloorRequests();
 
+  /**
+   * Copy the current stop requests, packed as in {@link FloorBitSet}, into an array
+   * without allocating.
+   *
+   * @param words  the array to copy into.
+   * @param offset the index of the first word to write.
+   */
+  void copyFloorRequests(long[] words, int offset);
+
+  /**
+   * Return the number of floors the model.elevator will stop at.
+   *
+   * @return the number of stop requests.
+   */
+  int getStopCount();
+
+  /**
+   * Return the next floor the model.elevator will stop at in its current direction,
+   * including the current floor.
+   *
+   * @return the next stop, or -1 if there is no stop ahead.
+   */
+  int getNextStop();
+
   /**
    * start model.elevator.
    * This will start the model.elevator if the model.elevator is on the ground floor.
@@ -89,6 +116,25 @@ public interface ElevatorInterface {
    */
   void step();
 
+  /**
+   * Returns how many steps the model.elevator can take in one go with {@link #advance(int)}.
+   * Within that many steps the model.elevator only counts down a timer or passes floors
+   * where it does not stop.
+   *
+   * @return the number of steps to the next event, at least 1,
+   *     or Integer.MAX_VALUE if the model.elevator will not change any more.
+   */
+  int getTicksToNextEvent();
+
+  /**
+   * Takes several steps at once, with the same result as calling {@link #step()}
+   * that many times.
+   *
+   * @param ticks the number of steps, between 1 and {@link #getTicksToNextEvent()}.
+   * @throws IllegalArgumentException if ticks is out of range.
+   */
+  void advance(int ticks) throws IllegalArgumentException;
+
   /**
    * processUpRequests.
    * This will tell the model.elevator to process these upRequests on the next run.
@@ -99,6 +145,73 @@ public interface ElevatorInterface {
   void processRequests(List<Request> requests) throws IllegalArgumentException;
 
 
+  /**
+   * Estimates how many steps the model.elevator needs to arrive at a floor while
+   * travelling in the given direction, without turning around on the way.
+   *
+   * @param floor the floor to arrive at.
+   * @param direction the direction the model.elevator must be travelling in.
+   * @return the number of steps, or -1 if the model.elevator will not pass the floor
+   *     in that direction on this run or has no room left.
+   */
+  int getEstimatedTicksTo(int floor, Direction direction);
+
+  /**
+   * Adds a request to the current run of a moving model.elevator, if the
+   * model.elevator has not yet passed the start floor in the direction of the
+   * request and has room left.
+   *
+   * @param request the request to add.
+   * @return true if the stops were added, false if the request was refused.
+   */
+  boolean addStopRequest(Request request);
+
+  /**
+   * Hands the passengers picked up and dropped off on the last step to a sink.
+   * Events that are not drained before the next step are dropped.
+   *
+   * @param sink the receiver of the events.
+   */
+  void drainPassengerEvents(PassengerEventSink sink);
+
+  /**
+   * Returns the number of passengers on board.
+   *
+   * @return the number of passengers on board.
+   */
+  int getPassengerCount();
+
+  /**
+   * Returns the number of passengers assigned to the model.elevator who have not boarded.
+   *
+   * @return the number of waiting passengers.
+   */
+  int getWaitingCount();
+
+  /**
+   * Returns a request of a passenger waiting for the model.elevator. Requests added by
+   * dispatch are appended after the ones already waiting.
+   *
+   * @param index the index, below {@link #getWaitingCount()}.
+   * @return the request.
+   */
+  Request getWaitingRequest(int index);
+
+  /**
+   * Returns the number of floors the model.elevator has travelled.
+   *
+   * @return the floors travelled.
+   */
+  long getFloorsTravelled();
+
+  /**
+   * Returns the number of passengers on board summed over every floor travelled. Divided
+   * by the floors travelled and the maximum occupancy it gives the utilization of the car.
+   *
+   * @return the passenger floors carried.
+   */
+  long getPassengerFloors();
+
   /**
    * isTakingRequests.
    * This will tell the model.building if the model.elevator is taking requests.
@@ -107,6 +220,30 @@ public interface ElevatorInterface {
    */
   boolean isTakingRequests();
 
+  /**
+   * Returns the change counter of the model.elevator.
+   *
+   * @return a number that changes whenever the state of the model.elevator changes.
+   */
+  long getVersion();
+
+  /**
+   * Writes the full state of the model.elevator to a binary stream.
+   *
+   * @param out the stream.
+   * @throws IOException if the stream cannot be written.
+   */
+  void writeState(DataOutput out) throws IOException;
+
+  /**
+   * Replaces the state of the model.elevator with one written by {@link #writeState}.
+   *
+   * @param in the stream.
+   * @throws IOException if the stream cannot be read or was written by an model.elevator
+   *     of another size.
+   */
+  void readState(DataInput in) throws IOException;
+
   /**
    * This method is used to get the model.elevator status ElevatorReport.
    *
@@ -1,15 +1,21 @@
 package model.elevator;
 
+import java.util.Arrays;
 import model.building.enums.Direction;
 
 /**
  * This class is used to represent the status of the elevators.
+ * A report is an immutable snapshot: the packed floor requests it holds are never written
+ * after construction, so a report can be handed to another thread while the
+ * model.elevator keeps stepping.
  */
 public class ElevatorReport {
+  private final long version;
   private final int elevatorId;
   private final int currentFloor;
   private final boolean doorClosed;
-  private final boolean[] floorRequests;
+  private final long[] floorRequests;
+  private final int floorCount;
   private final Direction direction;
 
   private final int doorOpenTimer;
@@ -43,10 +49,60 @@ public class ElevatorReport {
                         int endWaitTimer,
                         boolean outOfService,
                         boolean isTakingRequests) {
+    this(elevatorId, currentFloor, direction, doorClosed,
+        FloorBitSet.fromBooleanArray(floorRequests), floorRequests.length,
+        doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object from a packed stop set.
+   *
+   * @param elevatorId       The id of the model.elevator.
+   * @param currentFloor     The current floor of the model.elevator.
+   * @param direction        The direction of the model.elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequests    The requests for the floors, packed as in {@link FloorBitSet}.
+   *                         The caller must not modify the array afterwards.
+   * @param floorCount       The number of floors covered by the requests.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the model.elevator.
+   * @param isTakingRequests Is the model.elevator taking requests.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        long[] floorRequests,
+                        int floorCount,
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests) {
+    this(0, elevatorId, currentFloor, direction, doorClosed, floorRequests, floorCount,
+        doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used by the model.elevator to create a versioned report.
+   */
+  ElevatorReport(long version,
+                 int elevatorId,
+                 int currentFloor,
+                 Direction direction,
+                 boolean doorClosed,
+                 long[] floorRequests,
+                 int floorCount,
+                 int doorOpenTimer,
+                 int endWaitTimer,
+                 boolean outOfService,
+                 boolean isTakingRequests) {
+    this.version = version;
     this.elevatorId = elevatorId;
     this.currentFloor = currentFloor;
     this.doorClosed = doorClosed;
     this.floorRequests = floorRequests;
+    this.floorCount = floorCount;
     this.direction = direction;
     this.doorOpenTimer = doorOpenTimer;
     this.endWaitTimer = endWaitTimer;
@@ -57,6 +113,17 @@ public class ElevatorReport {
 
   // getters, no setters
 
+  /**
+   * This method is used to get the change counter of the model.elevator when the
+   * report was taken. Two reports of the same model.elevator with the same version
+   * describe the same state.
+   *
+   * @return The version of the report.
+   */
+  public long getVersion() {
+    return version;
+  }
+
   /**
    * This method is used to get the id of the model.elevator.
    *
@@ -87,10 +154,20 @@ public class ElevatorReport {
   /**
    * This method is used to get the requests for the floors.
    *
-   * @return The requests for the floors.
+   * @return The requests for the floors, one flag per floor.
    */
   public boolean[] getFloorRequests() {
-    return floorRequests;
+    return FloorBitSet.toBooleanArray(floorRequests, floorCount);
+  }
+
+  /**
+   * This method is used to check whether there is a request for a floor.
+   *
+   * @param floor The floor to check.
+   * @return true if the model.elevator will stop at the floor.
+   */
+  public boolean hasFloorRequest(int floor) {
+    return FloorBitSet.get(floorRequests, floor);
   }
 
   /**
@@ -169,8 +246,8 @@ public class ElevatorReport {
       sb.append(String.format("O %d]<", this.doorOpenTimer));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
+    for (int i = 0; i < this.floorCount; i++) {
+      if (FloorBitSet.get(this.floorRequests, i)) {
         sb.append(String.format(" %2d", i));
       } else {
         sb.append(" --");
@@ -220,12 +297,8 @@ public class ElevatorReport {
     if (this.isTakingRequests != that.isTakingRequests) {
       return false;
     }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
-    }
-    return true;
+    return this.floorCount == that.floorCount
+        && Arrays.equals(this.floorRequests, that.floorRequests);
   }
 
   /**
@@ -242,9 +315,8 @@ public class ElevatorReport {
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
     result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
-    }
+    result = 31 * result + this.floorCount;
+    result = 31 * result + Arrays.hashCode(this.floorRequests);
     return result;
   }
 }
@@ -0,0 +1,307 @@
+package model.elevator;
+
+/**
+ * Static helpers for a set of floors packed into a {@code long[]}, one bit per floor.
+ * Floor {@code f} lives in bit {@code f % 64} of word {@code f / 64}, so a building of up to
+ * 64 floors needs a single word and every operation below touches one long.
+ * The helpers work on plain arrays so the bits can be embedded directly in the owner
+ * without an extra object per elevator. The variants taking an offset work on a set stored
+ * at that word offset inside a larger array, as an {@link ElevatorFleet} keeps the sets
+ * of all its cars back to back.
+ */
+public final class FloorBitSet {
+
+  private FloorBitSet() {
+  }
+
+  /**
+   * Returns the number of words needed to hold the given number of floors.
+   *
+   * @param floors the number of floors.
+   * @return the number of words.
+   */
+  public static int wordCount(int floors) {
+    return (floors + 63) >>> 6;
+  }
+
+  /**
+   * Creates an empty set for the given number of floors.
+   *
+   * @param floors the number of floors.
+   * @return the empty set.
+   */
+  public static long[] create(int floors) {
+    return new long[wordCount(floors)];
+  }
+
+  /**
+   * Tests whether a floor is in the set.
+   *
+   * @param words the set.
+   * @param floor the floor.
+   * @return true if the floor is in the set.
+   */
+  public static boolean get(long[] words, int floor) {
+    return (words[floor >>> 6] & (1L << floor)) != 0;
+  }
+
+  /**
+   * Tests whether a floor is in the set stored at an offset.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param floor the floor.
+   * @return true if the floor is in the set.
+   */
+  public static boolean get(long[] words, int offset, int floor) {
+    return (words[offset + (floor >>> 6)] & (1L << floor)) != 0;
+  }
+
+  /**
+   * Adds a floor to the set.
+   *
+   * @param words the set.
+   * @param floor the floor.
+   */
+  public static void set(long[] words, int floor) {
+    words[floor >>> 6] |= 1L << floor;
+  }
+
+  /**
+   * Adds a floor to the set stored at an offset.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param floor the floor.
+   */
+  public static void set(long[] words, int offset, int floor) {
+    words[offset + (floor >>> 6)] |= 1L << floor;
+  }
+
+  /**
+   * Removes a floor from the set.
+   *
+   * @param words the set.
+   * @param floor the floor.
+   */
+  public static void clear(long[] words, int floor) {
+    words[floor >>> 6] &= ~(1L << floor);
+  }
+
+  /**
+   * Removes a floor from the set stored at an offset.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param floor the floor.
+   */
+  public static void clear(long[] words, int offset, int floor) {
+    words[offset + (floor >>> 6)] &= ~(1L << floor);
+  }
+
+  /**
+   * Removes every floor from the set.
+   *
+   * @param words the set.
+   */
+  public static void clearAll(long[] words) {
+    for (int i = 0; i < words.length; i++) {
+      words[i] = 0L;
+    }
+  }
+
+  /**
+   * Tests whether the set is empty.
+   *
+   * @param words the set.
+   * @return true if no floor is in the set.
+   */
+  public static boolean isEmpty(long[] words) {
+    for (long word : words) {
+      if (word != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Counts the floors in the set.
+   *
+   * @param words the set.
+   * @return the number of floors in the set.
+   */
+  public static int count(long[] words) {
+    return count(words, 0, words.length);
+  }
+
+  /**
+   * Counts the floors in the set stored at an offset.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param length the number of words of the set.
+   * @return the number of floors in the set.
+   */
+  public static int count(long[] words, int offset, int length) {
+    int count = 0;
+    for (int i = offset; i < offset + length; i++) {
+      count += Long.bitCount(words[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Counts the floors in the set within a range.
+   *
+   * @param words the set.
+   * @param from the lowest floor of the range, inclusive.
+   * @param to the highest floor of the range, exclusive.
+   * @return the number of floors in the set between from and to.
+   */
+  public static int countRange(long[] words, int from, int to) {
+    return countRange(words, 0, from, to);
+  }
+
+  /**
+   * Counts the floors in the set stored at an offset within a range.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param from the lowest floor of the range, inclusive.
+   * @param to the highest floor of the range, exclusive.
+   * @return the number of floors in the set between from and to.
+   */
+  public static int countRange(long[] words, int offset, int from, int to) {
+    if (from >= to) {
+      return 0;
+    }
+    int first = offset + (from >>> 6);
+    int last = offset + ((to - 1) >>> 6);
+    long firstMask = -1L << from;
+    long lastMask = -1L >>> -to;
+    if (first == last) {
+      return Long.bitCount(words[first] & firstMask & lastMask);
+    }
+    int count = Long.bitCount(words[first] & firstMask);
+    for (int i = first + 1; i < last; i++) {
+      count += Long.bitCount(words[i]);
+    }
+    return count + Long.bitCount(words[last] & lastMask);
+  }
+
+  /**
+   * Finds the lowest floor in the set that is greater than or equal to {@code from}.
+   *
+   * @param words the set.
+   * @param from the floor to start searching from.
+   * @return the floor, or -1 if there is none.
+   */
+  public static int nextSetBit(long[] words, int from) {
+    return nextSetBit(words, 0, words.length, from);
+  }
+
+  /**
+   * Finds the lowest floor in the set stored at an offset that is greater than or equal
+   * to {@code from}.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param length the number of words of the set.
+   * @param from the floor to start searching from.
+   * @return the floor, or -1 if there is none.
+   */
+  public static int nextSetBit(long[] words, int offset, int length, int from) {
+    if (from < 0) {
+      from = 0;
+    }
+    int index = from >>> 6;
+    if (index >= length) {
+      return -1;
+    }
+    long word = words[offset + index] & (-1L << from);
+    while (true) {
+      if (word != 0L) {
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+      }
+      if (++index == length) {
+        return -1;
+      }
+      word = words[offset + index];
+    }
+  }
+
+  /**
+   * Finds the highest floor in the set that is less than or equal to {@code from}.
+   *
+   * @param words the set.
+   * @param from the floor to start searching from.
+   * @return the floor, or -1 if there is none.
+   */
+  public static int previousSetBit(long[] words, int from) {
+    return previousSetBit(words, 0, words.length, from);
+  }
+
+  /**
+   * Finds the highest floor in the set stored at an offset that is less than or equal
+   * to {@code from}.
+   *
+   * @param words the array holding the set.
+   * @param offset the index of the first word of the set.
+   * @param length the number of words of the set.
+   * @param from the floor to start searching from.
+   * @return the floor, or -1 if there is none.
+   */
+  public static int previousSetBit(long[] words, int offset, int length, int from) {
+    if (from < 0) {
+      return -1;
+    }
+    int index = from >>> 6;
+    if (index >= length) {
+      index = length - 1;
+      from = (index << 6) + 63;
+    }
+    long word = words[offset + index] & (-1L >>> (63 - (from & 63)));
+    while (true) {
+      if (word != 0L) {
+        return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+      }
+      if (index-- == 0) {
+        return -1;
+      }
+      word = words[offset + index];
+    }
+  }
+
+  /**
+   * Expands the set into one flag per floor.
+   *
+   * @param words the set.
+   * @param floors the number of floors.
+   * @return a new array where element {@code f} is true if floor {@code f} is in the set.
+   */
+  public static boolean[] toBooleanArray(long[] words, int floors) {
+    boolean[] flags = new boolean[floors];
+    for (int floor = nextSetBit(words, 0); floor >= 0 && floor < floors;
+         floor = nextSetBit(words, floor + 1)) {
+      flags[floor] = true;
+    }
+    return flags;
+  }
+
+  /**
+   * Packs one flag per floor into a new set.
+   *
+   * @param flags the flags, element {@code f} is true if floor {@code f} is in the set.
+   * @return the set.
+   */
+  public static long[] fromBooleanArray(boolean[] flags) {
+    long[] words = create(flags.length);
+    for (int floor = 0; floor < flags.length; floor++) {
+      if (flags[floor]) {
+        set(words, floor);
+      }
+    }
+    return words;
+  }
+}
@@ -0,0 +1,24 @@
+package model.elevator;
+
+import model.scanerzus.Request;
+
+/**
+ * Receives the passengers an model.elevator picked up and dropped off on its last step,
+ * see {@link ElevatorInterface#drainPassengerEvents(PassengerEventSink)}.
+ */
+public interface PassengerEventSink {
+
+  /**
+   * Called for a passenger that boarded at the start floor of their request.
+   *
+   * @param request the request of the passenger.
+   */
+  void pickedUp(Request request);
+
+  /**
+   * Called for a passenger that left at the end floor of their request.
+   *
+   * @param request the request of the passenger.
+   */
+  void droppedOff(Request request);
+}
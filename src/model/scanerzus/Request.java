@@ -1,5 +1,8 @@
 package model.scanerzus;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * This class represents a request to the model.elevator.
@@ -8,6 +11,9 @@ package model.scanerzus;
 public class Request implements RequestInterface {
   private final int startFloor;
   private final int endFloor;
+  private long arrivalTick = -1;
+  private long pickupTick = -1;
+  private long dropOffTick = -1;
 
   /**
    * The constructor for the request.
@@ -15,7 +21,8 @@ public class Request implements RequestInterface {
    * represent a request to the model.elevator.  Because they implement the
    * scanning software depending on the model.elevator system, they do not do any
    * error checking on the construction of the requests.  These are simply tickets
-   * that are passed to the model.elevator system.
+   * that are passed to the model.elevator system, which stamps them with the ticks
+   * the passenger arrived, was picked up and was dropped off.
    * Some buildings have negative floors, but for the purposes of this assignment
    * we can assume that all floors are positive.
    *
@@ -45,6 +52,92 @@ public class Request implements RequestInterface {
     return endFloor;
   }
 
+  /**
+   * Gets the tick the request arrived at the model.building.
+   *
+   * @return the arrival tick, or -1 if the request has not been added to a model.building.
+   */
+  public long getArrivalTick() {
+    return arrivalTick;
+  }
+
+  /**
+   * Gets the tick the passenger was picked up at the start floor.
+   *
+   * @return the pickup tick, or -1 if the passenger has not been picked up.
+   */
+  public long getPickupTick() {
+    return pickupTick;
+  }
+
+  /**
+   * Gets the tick the passenger was dropped off at the end floor.
+   *
+   * @return the drop-off tick, or -1 if the passenger has not been dropped off.
+   */
+  public long getDropOffTick() {
+    return dropOffTick;
+  }
+
+  /**
+   * Stamps the tick the request arrived at the model.building. This also clears the
+   * pickup and drop-off ticks, so a request is only tracked for its latest arrival.
+   *
+   * @param tick the arrival tick.
+   */
+  public void stampArrival(long tick) {
+    this.arrivalTick = tick;
+    this.pickupTick = -1;
+    this.dropOffTick = -1;
+  }
+
+  /**
+   * Stamps the tick the passenger was picked up at the start floor.
+   *
+   * @param tick the pickup tick.
+   */
+  public void stampPickup(long tick) {
+    this.pickupTick = tick;
+  }
+
+  /**
+   * Stamps the tick the passenger was dropped off at the end floor.
+   *
+   * @param tick the drop-off tick.
+   */
+  public void stampDropOff(long tick) {
+    this.dropOffTick = tick;
+  }
+
+  /**
+   * Writes the request and its lifecycle ticks to a binary stream.
+   *
+   * @param out the stream.
+   * @throws IOException if the stream cannot be written.
+   */
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeInt(startFloor);
+    out.writeInt(endFloor);
+    out.writeLong(arrivalTick);
+    out.writeLong(pickupTick);
+    out.writeLong(dropOffTick);
+  }
+
+  /**
+   * Reads a request written by {@link #writeTo(DataOutput)}.
+   *
+   * @param in the stream.
+   * @return the request, with its lifecycle ticks.
+   * @throws IOException if the stream cannot be read.
+   */
+  public static Request readFrom(DataInput in) throws IOException {
+    Request request = new Request(in.readInt(), in.readInt());
+    request.arrivalTick = in.readLong();
+    request.pickupTick = in.readLong();
+    request.dropOffTick = in.readLong();
+    return request;
+  }
+
   /**
    * Returns a string representation of the request.
    * This is a string of the form:
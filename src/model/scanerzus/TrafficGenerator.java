@@ -0,0 +1,243 @@
+package model.scanerzus;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic stream of requests for load testing. Requests arrive as a Poisson
+ * process with a fixed mean rate per tick; the start and end floors follow a
+ * {@link TrafficProfile} and the population weight of each floor. Floor 0 is the lobby.
+ * The stream depends only on its parameters and the seed, so a run can be repeated exactly.
+ *
+ * <p>The generator is a cursor like a replayed trace: {@link #peekTick()} looks at the tick
+ * of the next request, {@link #next()} moves to it and the getters return its fields. Floors
+ * are drawn from alias tables in constant time and nothing is allocated per request unless
+ * {@link #nextRequest()} is used.
+ */
+public class TrafficGenerator {
+  private final TrafficProfile profile;
+  private final double requestsPerTick;
+  private final SplittableRandom random;
+  private final AliasTable allFloors;
+  private final AliasTable upperFloors;
+  private double clock;
+  private long tick;
+  private int startFloor;
+  private int endFloor;
+
+  /**
+   * Constructs a generator where every floor has the same population.
+   *
+   * @param profile         the traffic pattern.
+   * @param requestsPerTick the mean number of requests per tick.
+   * @param floors          the number of floors, at least 3.
+   * @param seed            the seed of the random stream.
+   * @throws IllegalArgumentException if a parameter is out of range.
+   */
+  public TrafficGenerator(TrafficProfile profile, double requestsPerTick, int floors, long seed) {
+    this(profile, requestsPerTick, uniformWeights(floors), seed);
+  }
+
+  /**
+   * Constructs a generator with a population weight per floor.
+   *
+   * @param profile         the traffic pattern.
+   * @param requestsPerTick the mean number of requests per tick.
+   * @param floorWeights    the relative population of each floor, the lobby first.
+   *                        At least two floors above the lobby must have a positive weight.
+   * @param seed            the seed of the random stream.
+   * @throws IllegalArgumentException if a parameter is out of range.
+   */
+  public TrafficGenerator(TrafficProfile profile, double requestsPerTick,
+                          double[] floorWeights, long seed) {
+    if (profile == null) {
+      throw new IllegalArgumentException("profile cannot be null");
+    }
+    if (!(requestsPerTick > 0) || Double.isInfinite(requestsPerTick)) {
+      throw new IllegalArgumentException("requestsPerTick must be positive");
+    }
+    int positive = 0;
+    for (int floor = 0; floor < floorWeights.length; floor++) {
+      if (!(floorWeights[floor] >= 0) || Double.isInfinite(floorWeights[floor])) {
+        throw new IllegalArgumentException("floor weights must be finite and not negative");
+      }
+      if (floor > 0 && floorWeights[floor] > 0) {
+        positive++;
+      }
+    }
+    if (positive < 2) {
+      throw new IllegalArgumentException(
+          "at least two floors above the lobby must have a positive weight");
+    }
+
+    this.profile = profile;
+    this.requestsPerTick = requestsPerTick;
+    this.random = new SplittableRandom(seed);
+    this.allFloors = new AliasTable(floorWeights);
+    double[] upper = floorWeights.clone();
+    upper[0] = 0;
+    this.upperFloors = new AliasTable(upper);
+    this.clock = nextGap();
+  }
+
+  /**
+   * Returns one weight per floor.
+   *
+   * @param floors the number of floors.
+   * @return the weights.
+   */
+  private static double[] uniformWeights(int floors) {
+    if (floors < 3) {
+      throw new IllegalArgumentException("floors must be at least 3");
+    }
+    double[] weights = new double[floors];
+    Arrays.fill(weights, 1.0);
+    return weights;
+  }
+
+  /**
+   * Returns the traffic pattern.
+   *
+   * @return the profile.
+   */
+  public TrafficProfile getProfile() {
+    return profile;
+  }
+
+  /**
+   * Returns the tick of the next request without moving to it.
+   *
+   * @return the tick.
+   */
+  public long peekTick() {
+    return (long) clock;
+  }
+
+  /**
+   * Moves to the next request. The stream never ends.
+   */
+  public void next() {
+    tick = (long) clock;
+    double kind = random.nextDouble();
+    if (kind < profile.getIncoming()) {
+      startFloor = 0;
+      endFloor = upperFloors.sample(random);
+    } else if (kind < profile.getIncoming() + profile.getOutgoing()) {
+      startFloor = upperFloors.sample(random);
+      endFloor = 0;
+    } else {
+      AliasTable floors = profile == TrafficProfile.UNIFORM ? allFloors : upperFloors;
+      startFloor = floors.sample(random);
+      do {
+        endFloor = floors.sample(random);
+      } while (endFloor == startFloor);
+    }
+    clock += nextGap();
+  }
+
+  /**
+   * Moves to the next request and returns it as a new Request.
+   *
+   * @return the request.
+   */
+  public Request nextRequest() {
+    next();
+    return new Request(startFloor, endFloor);
+  }
+
+  /**
+   * Returns the tick of the current request.
+   *
+   * @return the tick.
+   */
+  public long getTick() {
+    return tick;
+  }
+
+  /**
+   * Returns the start floor of the current request.
+   *
+   * @return the start floor.
+   */
+  public int getStartFloor() {
+    return startFloor;
+  }
+
+  /**
+   * Returns the end floor of the current request.
+   *
+   * @return the end floor.
+   */
+  public int getEndFloor() {
+    return endFloor;
+  }
+
+  /**
+   * Draws the time to the next arrival of the Poisson process.
+   *
+   * @return the gap in ticks, exponentially distributed.
+   */
+  private double nextGap() {
+    return -Math.log(1.0 - random.nextDouble()) / requestsPerTick;
+  }
+
+  /**
+   * Walker's alias table: samples an index with probability proportional to its weight
+   * in constant time.
+   */
+  private static final class AliasTable {
+    private final double[] probability;
+    private final int[] alias;
+
+    AliasTable(double[] weights) {
+      int n = weights.length;
+      double total = 0;
+      for (double weight : weights) {
+        total += weight;
+      }
+      probability = new double[n];
+      alias = new int[n];
+      double[] scaled = new double[n];
+      int[] small = new int[n];
+      int[] large = new int[n];
+      int smallCount = 0;
+      int largeCount = 0;
+      for (int i = 0; i < n; i++) {
+        scaled[i] = weights[i] * n / total;
+        if (scaled[i] < 1.0) {
+          small[smallCount++] = i;
+        } else {
+          large[largeCount++] = i;
+        }
+      }
+      while (smallCount > 0 && largeCount > 0) {
+        int less = small[--smallCount];
+        int more = large[--largeCount];
+        probability[less] = scaled[less];
+        alias[less] = more;
+        scaled[more] = scaled[more] + scaled[less] - 1.0;
+        if (scaled[more] < 1.0) {
+          small[smallCount++] = more;
+        } else {
+          large[largeCount++] = more;
+        }
+      }
+      // what is left is 1 up to rounding
+      while (largeCount > 0) {
+        int i = large[--largeCount];
+        probability[i] = 1.0;
+        alias[i] = i;
+      }
+      while (smallCount > 0) {
+        int i = small[--smallCount];
+        probability[i] = 1.0;
+        alias[i] = i;
+      }
+    }
+
+    int sample(SplittableRandom random) {
+      int i = random.nextInt(probability.length);
+      return random.nextDouble() < probability[i] ? i : alias[i];
+    }
+  }
+}
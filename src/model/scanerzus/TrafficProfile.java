@@ -0,0 +1,55 @@
+package model.scanerzus;
+
+/**
+ * The traffic patterns of a {@link TrafficGenerator}. Each profile is a mix of incoming
+ * traffic (from the lobby up), outgoing traffic (down to the lobby) and interfloor traffic
+ * between the upper floors.
+ */
+public enum TrafficProfile {
+  /**
+   * Trips between any two floors, the lobby included, weighted by population.
+   */
+  UNIFORM(0, 0),
+  /**
+   * Trips between the upper floors only.
+   */
+  INTERFLOOR(0, 0),
+  /**
+   * The morning peak: mostly incoming.
+   */
+  UP_PEAK(0.85, 0.05),
+  /**
+   * The evening peak: mostly outgoing.
+   */
+  DOWN_PEAK(0.05, 0.85),
+  /**
+   * The lunch hour: incoming and outgoing in equal measure.
+   */
+  LUNCH(0.45, 0.45);
+
+  private final double incoming;
+  private final double outgoing;
+
+  TrafficProfile(double incoming, double outgoing) {
+    this.incoming = incoming;
+    this.outgoing = outgoing;
+  }
+
+  /**
+   * Returns the share of trips from the lobby to an upper floor.
+   *
+   * @return the share, between 0 and 1.
+   */
+  public double getIncoming() {
+    return incoming;
+  }
+
+  /**
+   * Returns the share of trips from an upper floor to the lobby.
+   *
+   * @return the share, between 0 and 1.
+   */
+  public double getOutgoing() {
+    return outgoing;
+  }
+}
@@ -41,6 +41,19 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
   private JButton stopButton;
   private JButton stepButton;
   private JButton requestButton;
+  private JButton runButton;
+  private JButton pauseButton;
+
+  private static final Color LABEL_COLOR = new Color(178, 178, 178);
+  private static final Color STOP_COLOR = new Color(188, 244, 178);
+  private static final Color NO_STOP_COLOR = new Color(0, 0, 0, 0); // Transparent
+
+  // the grid built by buildGrid and the reports it currently shows
+  private JLabel[][] shaftCells;
+  private ElevatorReport[] shownReports;
+  private ElevatorSystemStatus shownStatus;
+  private int shownFloors;
+  private Color cellForeground;
 
   /**
    * Constructs a new BuildingView, initializing the user interface components
@@ -190,13 +203,24 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
 
     JTextField fromField = new JTextField(10);
     JTextField toField = new JTextField(10);
+    fromField.setToolTipText("A floor, or several separated by commas");
+    toField.setToolTipText("A floor, or several separated by commas");
 
     requestButton = new JButton("Send Request");
     requestButton.addActionListener(e -> {
       try {
-        int from = Integer.parseInt(fromField.getText());
-        int to = Integer.parseInt(toField.getText());
-        controller.requestElevator(from, to);
+        int[] from = parseFloors(fromField.getText());
+        int[] to = parseFloors(toField.getText());
+        if (from.length != to.length) {
+          showErrorMessage("Please enter as many To floors as From floors.");
+          return;
+        }
+        // several trips go to the model as one batch with a single refresh
+        if (from.length == 1) {
+          controller.requestElevator(from[0], to[0]);
+        } else {
+          controller.requestElevators(from, to);
+        }
         fromField.setText("");
         toField.setText("");
         fromField.requestFocus();
@@ -215,6 +239,20 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
       controller.stopBuilding();
     });
 
+    JTextField rateField = new JTextField("10", 5);
+    rateField.setToolTipText("Steps per second, 0 for as fast as possible");
+    runButton = new JButton("Run");
+    runButton.addActionListener(e -> {
+      try {
+        controller.startAutoRun(Integer.parseInt(rateField.getText()));
+      } catch (IllegalArgumentException ex) {
+        showErrorMessage("Please enter a rate of 0 or more steps per second.");
+      }
+    });
+
+    pauseButton = new JButton("Pause");
+    pauseButton.addActionListener(e -> controller.pauseAutoRun());
+
     JButton quitButton = new JButton("Quit");
     quitButton.addActionListener(e -> System.exit(0));
 
@@ -224,6 +262,10 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
     buttonsPanel.add(toField);
     buttonsPanel.add(requestButton);
     buttonsPanel.add(stepButton);
+    buttonsPanel.add(new JLabel("Steps/s:"));
+    buttonsPanel.add(rateField);
+    buttonsPanel.add(runButton);
+    buttonsPanel.add(pauseButton);
     buttonsPanel.add(startButton);
     buttonsPanel.add(stopButton);
     buttonsPanel.add(quitButton);
@@ -235,6 +277,8 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
   /**
    * Updates the GUI based on the latest status of the building report.
    * This includes refreshing the display of floors, elevators, and requests.
+   * The grid of floor cells is built once; afterwards only the cells of elevators whose
+   * report changed since the last update are touched.
    *
    * @param report The latest building report containing the status of all elevators
    *               and requests in the building.
@@ -242,79 +286,140 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
   @Override
   public void updateView(BuildingReport report) {
     // System.out.println("Updating view");
+    int floors = controller.getFloors();
+    ElevatorReport[] elevatorReports = report.getElevatorReports();
+
+    // (re)build the grid only when the shape of the building changes
+    boolean rebuilt = false;
+    if (shaftCells == null || floors != shownFloors
+        || elevatorReports.length != shaftCells.length) {
+      buildGrid(floors, elevatorReports.length);
+      rebuilt = true;
+    }
+
+    boolean statusChanged = report.getSystemStatus() != shownStatus;
+    for (int i = 0; i < elevatorReports.length; i++) {
+      ElevatorReport previous = shownReports[i];
+      // reports are immutable snapshots, the same instance means nothing changed
+      if (previous == elevatorReports[i] && !statusChanged) {
+        continue;
+      }
+      updateElevatorCells(shaftCells[i], previous, elevatorReports[i], report.getSystemStatus());
+      shownReports[i] = elevatorReports[i];
+    }
+    shownStatus = report.getSystemStatus();
 
-    // update floors
+    // Update the request display
+    updateRequests(report.getUpRequests(), report.getDownRequests());
+
+    // Enable or disable buttons based on the current state
+    startButton.setEnabled(controller.canStartBuilding());
+    stopButton.setEnabled(!controller.canStartBuilding());
+    stepButton.setEnabled(controller.canStepBuilding() && !controller.isAutoRunning());
+    runButton.setEnabled(!controller.isAutoRunning());
+    pauseButton.setEnabled(controller.isAutoRunning());
+    requestButton.setEnabled(controller.canRequestBuilding());
+
+    // Refresh the GUI, only a new grid needs a new layout
+    if (rebuilt) {
+      revalidate();
+    }
+    repaint();
+  }
+
+  /**
+   * Builds the floor labels and an empty grid of cells for every elevator shaft.
+   *
+   * @param floors         The number of floors in the building.
+   * @param elevatorsCount The number of elevators in the building.
+   */
+  private void buildGrid(int floors, int elevatorsCount) {
+    // floors
     floorPanel.removeAll();
-    int floors = controller.getFloors();
     for (int i = floors - 1; i >= 0; i--) {
       JLabel floorLabel = new JLabel(" Floor " + i + " ");
       floorLabel.setHorizontalAlignment(SwingConstants.CENTER);
-      floorLabel.setForeground(new Color(178, 178, 178));
+      floorLabel.setForeground(LABEL_COLOR);
       floorPanel.add(floorLabel);
     }
 
-    // update elevator shafts
+    // elevator shafts, row 0 is the top floor
     elevatorShaftsPanel.removeAll();
-    int elevatorsCount = report.getElevatorReports().length;
     elevatorShaftsPanel.setLayout(
         new GridLayout(1, elevatorsCount)); // Set layout based on number of elevators
-    for (ElevatorReport elevatorReport : report.getElevatorReports()) {
+    shaftCells = new JLabel[elevatorsCount][floors];
+    for (int e = 0; e < elevatorsCount; e++) {
       JPanel elevatorPanel = new JPanel(new BorderLayout());
       elevatorPanel.setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
 
       // Create a sub-panel for the elevator to place status
       JPanel floorsPanel = new JPanel(new GridLayout(floors, 1));
-      JLabel[] floorLabels = new JLabel[floors];
-      boolean[] floorRequests = elevatorReport.getFloorRequests();
-      for (int i = 0; i < floors; i++) {
-        floorLabels[i] = new JLabel();
-        floorLabels[i].setHorizontalAlignment(SwingConstants.CENTER);
-        floorLabels[i].setOpaque(true);
-        int arrayIndex = floors - 1 - i; // Reverse the array index to match the floor order
-        if (floorRequests != null && floorRequests[arrayIndex]) {
-          floorLabels[i].setBackground(new Color(188, 244, 178));
-        } else {
-          floorLabels[i].setBackground(new Color(0, 0, 0, 0)); // Transparent
-        }
-        floorsPanel.add(floorLabels[i]);
-      }
-
-      // Place an elevator marker on the current floor
-      int currentFloor = elevatorReport.getCurrentFloor();
-      String doorClosedColor = "<font color='#FF71CD'>C</font>";
-      String doorOpenColor = "<font color='#8B93FF'>O</font>";
-      String doorStatus =
-          elevatorReport.isDoorClosed() ? doorClosedColor : doorOpenColor;
-      floorLabels[floors - 1 - currentFloor].setText(
-          "<html>#" + elevatorReport.getElevatorId()
-          + " [" + elevatorReport.getDirection() + "|"
-          + doorStatus
-          + "|W: " + elevatorReport.getEndWaitTimer()
-          + "|D: " + elevatorReport.getDoorOpenTimer() + "]</html>"
-      );
-
-      // if ElevatorSystemStatus is outOfService, display "Out of Service" on the elevator
-      if (report.getSystemStatus() == ElevatorSystemStatus.outOfService) {
-        floorLabels[floors - 1 - currentFloor].setText("Out of Service");
-        floorLabels[floors - 1 - currentFloor].setForeground(Color.RED);
+      for (int row = 0; row < floors; row++) {
+        JLabel cell = new JLabel();
+        cell.setHorizontalAlignment(SwingConstants.CENTER);
+        cell.setOpaque(true);
+        cell.setBackground(NO_STOP_COLOR);
+        cellForeground = cell.getForeground();
+        shaftCells[e][row] = cell;
+        floorsPanel.add(cell);
       }
-
       elevatorPanel.add(floorsPanel, BorderLayout.CENTER);
       elevatorShaftsPanel.add(elevatorPanel);
     }
 
-    // Update the request display
-    updateRequests(report.getUpRequests(), report.getDownRequests());
+    shownFloors = floors;
+    shownReports = new ElevatorReport[elevatorsCount];
+    shownStatus = null;
+  }
 
-    // Enable or disable buttons based on the current state
-    startButton.setEnabled(controller.canStartBuilding());
-    stopButton.setEnabled(!controller.canStartBuilding());
-    stepButton.setEnabled(controller.canStepBuilding());
-    requestButton.setEnabled(controller.canRequestBuilding());
+  /**
+   * Updates the cells of one elevator shaft from its latest report, touching only the
+   * cells whose stop request or elevator marker changed.
+   *
+   * @param cells        The cells of the shaft, row 0 is the top floor.
+   * @param previous     The report currently shown, or null if the shaft is empty.
+   * @param current      The latest report.
+   * @param systemStatus The status of the elevator system.
+   */
+  private void updateElevatorCells(JLabel[] cells, ElevatorReport previous,
+                                   ElevatorReport current, ElevatorSystemStatus systemStatus) {
+    int floors = cells.length;
+
+    // stop requests
+    for (int floor = 0; floor < floors; floor++) {
+      boolean stop = current.hasFloorRequest(floor);
+      if (previous == null || previous.hasFloorRequest(floor) != stop) {
+        cells[floors - 1 - floor].setBackground(stop ? STOP_COLOR : NO_STOP_COLOR);
+      }
+    }
 
-    // Refresh the GUI
-    revalidate();
-    repaint();
+    // move the elevator marker
+    int currentFloor = current.getCurrentFloor();
+    if (previous != null && previous.getCurrentFloor() != currentFloor) {
+      JLabel oldCell = cells[floors - 1 - previous.getCurrentFloor()];
+      oldCell.setText("");
+      oldCell.setForeground(cellForeground);
+    }
+    JLabel cell = cells[floors - 1 - currentFloor];
+
+    // if ElevatorSystemStatus is outOfService, display "Out of Service" on the elevator
+    if (systemStatus == ElevatorSystemStatus.outOfService) {
+      cell.setText("Out of Service");
+      cell.setForeground(Color.RED);
+      return;
+    }
+
+    String doorClosedColor = "<font color='#FF71CD'>C</font>";
+    String doorOpenColor = "<font color='#8B93FF'>O</font>";
+    String doorStatus = current.isDoorClosed() ? doorClosedColor : doorOpenColor;
+    cell.setText(
+        "<html>#" + current.getElevatorId()
+        + " [" + current.getDirection() + "|"
+        + doorStatus
+        + "|W: " + current.getEndWaitTimer()
+        + "|D: " + current.getDoorOpenTimer() + "]</html>"
+    );
+    cell.setForeground(cellForeground);
   }
 
   /**
@@ -353,6 +458,22 @@ public class BuildingView extends JFrame implements BuildingViewInterface {
     requestDisplay.setText(sb.toString());
   }
 
+  /**
+   * Parses a floor, or several floors separated by commas.
+   *
+   * @param text The text of a floor field.
+   * @return the floors in the order they were entered.
+   * @throws NumberFormatException If any part is not an integer.
+   */
+  private static int[] parseFloors(String text) {
+    String[] parts = text.split(",");
+    int[] floors = new int[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      floors[i] = Integer.parseInt(parts[i].trim());
+    }
+    return floors;
+  }
+
   /**
    * Displays an error message dialog with the specified message.
    *
@@ -0,0 +1,173 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.building.Building;
+import model.building.BuildingReport;
+import model.scanerzus.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the hot paths of the Building class.
+ * Each benchmark runs over a matrix of floors, elevator counts and queue depths. The queue
+ * depth is the number of pending requests the building holds at the start of every iteration.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile exec:exec}; the gc profiler is on by default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildingBenchmark {
+  /**
+   * The number of requests after which the addRequest benchmark empties the queues again,
+   * so the backlog does not grow without bound during an iteration.
+   */
+  private static final int ADD_BATCH = 1 << 16;
+
+  /**
+   * The number of requests the addRequests benchmark adds per call; divide its score by
+   * this to compare it with addRequest.
+   */
+  private static final int BULK_SIZE = 1 << 10;
+
+  @Param({"11", "30"})
+  public int floors;
+
+  @Param({"8", "64"})
+  public int elevators;
+
+  @Param({"0", "1000", "10000"})
+  public int queueDepth;
+
+  private Building building;
+  private Request[] requests;
+  private int[] startFloors;
+  private int[] endFloors;
+  private List<List<Request>> batches;
+  private int nextRequest;
+  private int added;
+
+  /**
+   * Builds a fixed pool of valid requests, so the benchmarks do not measure request creation.
+   */
+  @Setup(Level.Trial)
+  public void setUpRequests() {
+    SplittableRandom random = new SplittableRandom(42);
+    requests = new Request[ADD_BATCH];
+    startFloors = new int[ADD_BATCH];
+    endFloors = new int[ADD_BATCH];
+    for (int i = 0; i < requests.length; i++) {
+      int from = random.nextInt(floors);
+      int to = random.nextInt(floors - 1);
+      if (to >= from) {
+        to++;
+      }
+      requests[i] = new Request(from, to);
+      startFloors[i] = from;
+      endFloors[i] = to;
+    }
+    batches = new ArrayList<>(ADD_BATCH / BULK_SIZE);
+    for (int i = 0; i < ADD_BATCH / BULK_SIZE; i++) {
+      batches.add(Arrays.asList(requests).subList(i * BULK_SIZE, (i + 1) * BULK_SIZE));
+    }
+  }
+
+  /**
+   * Creates a fresh running building holding queueDepth pending requests.
+   */
+  @Setup(Level.Iteration)
+  public void setUpBuilding() {
+    building = new Building(floors, elevators, 3);
+    building.startElevatorSystem();
+    for (int i = 0; i < queueDepth; i++) {
+      building.addRequest(requests[i % requests.length]);
+    }
+    nextRequest = 0;
+    added = 0;
+  }
+
+  /**
+   * Measures one simulation tick: dispatch plus stepping every elevator.
+   */
+  @Benchmark
+  public void triggerElevatorStep() {
+    building.triggerElevatorStep();
+  }
+
+  /**
+   * Measures validating and queueing a single request.
+   *
+   * @return whether the request was accepted.
+   */
+  @Benchmark
+  public boolean addRequest() {
+    if (++added == ADD_BATCH) {
+      building.clearRequests();
+      added = 0;
+    }
+    Request request = requests[nextRequest];
+    nextRequest = (nextRequest + 1) & (ADD_BATCH - 1);
+    return building.addRequest(request);
+  }
+
+  /**
+   * Measures validating and queueing a single request given by its floors, which is
+   * queued packed without a Request object.
+   *
+   * @return whether the request was accepted.
+   */
+  @Benchmark
+  public boolean addRequestFloors() {
+    if (++added == ADD_BATCH) {
+      building.clearRequests();
+      added = 0;
+    }
+    int request = nextRequest;
+    nextRequest = (nextRequest + 1) & (ADD_BATCH - 1);
+    return building.addRequest(startFloors[request], endFloors[request]);
+  }
+
+  /**
+   * Measures adding a batch of BULK_SIZE requests in one call.
+   *
+   * @return the number of requests accepted.
+   */
+  @Benchmark
+  public int addRequests() {
+    added += BULK_SIZE;
+    if (added >= ADD_BATCH) {
+      building.clearRequests();
+      added = 0;
+    }
+    int batch = nextRequest / BULK_SIZE;
+    nextRequest = (nextRequest + BULK_SIZE) & (ADD_BATCH - 1);
+    return building.addRequests(batches.get(batch));
+  }
+
+  /**
+   * Measures building a status report of the whole building.
+   *
+   * @return the report, so it is not optimized away.
+   */
+  @Benchmark
+  public BuildingReport getElevatorSystemStatus() {
+    return building.getElevatorSystemStatus();
+  }
+}
@@ -0,0 +1,65 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.building.Building;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for stepping large fleets on several threads.
+ * Compare the scores of one parallelism level against {@code parallelism=1}
+ * to see how the step phase scales with the number of cores.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelStepBenchmark {
+
+  @Param({"1000", "10000"})
+  public int elevators;
+
+  @Param({"1", "2", "4", "8"})
+  public int parallelism;
+
+  private Building building;
+
+  /**
+   * Creates a fresh running building stepped on the given number of threads.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    building = new Building(30, elevators, 10);
+    building.setStepParallelism(parallelism);
+    building.startElevatorSystem();
+  }
+
+  /**
+   * Stops the worker threads of the iteration's building.
+   */
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    building.setStepParallelism(1);
+  }
+
+  /**
+   * Measures one tick of the whole fleet.
+   */
+  @Benchmark
+  public void triggerElevatorStep() {
+    building.triggerElevatorStep();
+  }
+}
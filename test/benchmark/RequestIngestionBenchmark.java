@@ -0,0 +1,169 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.building.Building;
+import model.scanerzus.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * JMH benchmark for feeding one building from many producer threads while a single thread
+ * steps it. The {@code inbox} group submits through the lock-free inbox; the {@code locked}
+ * group guards {@link Building#addRequest(Request)} and the step with one lock, which is
+ * what callers had to do before. Both groups run 8 producers and one stepper by default;
+ * change the split with {@code -tg}, for example {@code -tg 32,1}. JMH assigns the counts
+ * to the methods of a group in alphabetical order, which is why the producers are named
+ * so they sort before the stepper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestIngestionBenchmark {
+  /**
+   * The number of ticks after which the stepper throws the backlog away, so the queues do
+   * not grow without bound when the producers outpace the elevators.
+   */
+  private static final int CLEAR_EVERY = 1 << 10;
+
+  /**
+   * The building shared by the producers and the stepper of one group.
+   */
+  @State(Scope.Group)
+  public static class Shared {
+    Building building;
+    int ticks;
+
+    /**
+     * Creates a fresh running building.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+      building = new Building(30, 16, 10);
+      building.startElevatorSystem();
+      ticks = 0;
+    }
+
+    /**
+     * Steps the building once, dropping the backlog now and then.
+     */
+    void step() {
+      if (++ticks == CLEAR_EVERY) {
+        building.clearRequests();
+        ticks = 0;
+      }
+      building.triggerElevatorStep();
+    }
+  }
+
+  /**
+   * A fixed pool of valid requests per producer, so the benchmark does not measure
+   * request creation.
+   */
+  @State(Scope.Thread)
+  public static class Producer {
+    Request[] requests;
+    int next;
+
+    /**
+     * Builds the pool from a seed unique to the thread.
+     *
+     * @param params The thread parameters.
+     */
+    @Setup(Level.Trial)
+    public void setUp(ThreadParams params) {
+      SplittableRandom random = new SplittableRandom(params.getThreadIndex());
+      requests = new Request[1 << 12];
+      for (int i = 0; i < requests.length; i++) {
+        int from = random.nextInt(30);
+        int to = random.nextInt(29);
+        if (to >= from) {
+          to++;
+        }
+        requests[i] = new Request(from, to);
+      }
+    }
+
+    /**
+     * Returns the next request of the pool.
+     *
+     * @return the request.
+     */
+    Request nextRequest() {
+      Request request = requests[next];
+      next = (next + 1) & (requests.length - 1);
+      return request;
+    }
+  }
+
+  /**
+   * Measures submitting one request to the inbox.
+   *
+   * @param shared The building.
+   * @param producer The request pool.
+   * @return whether the request was accepted.
+   */
+  @Benchmark
+  @Group("inbox")
+  @GroupThreads(8)
+  public boolean inboxProduce(Shared shared, Producer producer) {
+    return shared.building.submitRequest(producer.nextRequest());
+  }
+
+  /**
+   * Measures one tick while the producers submit to the inbox.
+   *
+   * @param shared The building.
+   */
+  @Benchmark
+  @Group("inbox")
+  @GroupThreads(1)
+  public void inboxStep(Shared shared) {
+    shared.step();
+  }
+
+  /**
+   * Measures adding one request under the lock shared with the stepper.
+   *
+   * @param shared The building.
+   * @param producer The request pool.
+   * @return whether the request was accepted.
+   */
+  @Benchmark
+  @Group("locked")
+  @GroupThreads(8)
+  public boolean lockedProduce(Shared shared, Producer producer) {
+    Request request = producer.nextRequest();
+    synchronized (shared) {
+      return shared.building.addRequest(request);
+    }
+  }
+
+  /**
+   * Measures one tick under the lock shared with the producers.
+   *
+   * @param shared The building.
+   */
+  @Benchmark
+  @Group("locked")
+  @GroupThreads(1)
+  public void lockedStep(Shared shared) {
+    synchronized (shared) {
+      shared.step();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.building.Building;
+import model.building.TerminalBatchDispatch;
+import model.building.enums.ElevatorEngine;
+import model.scanerzus.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for the cost of one tick as buildings grow taller and fleets grow larger.
+ * Dividing the score by {@code floors * elevators} gives the cost per car-floor; it should
+ * stay flat or fall as either dimension grows, which means a tick is no worse than linear
+ * in floors times elevators. The {@code engine} parameter compares Elevator objects with
+ * the struct-of-arrays ElevatorFleet.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScalingBenchmark {
+
+  @Param({"50", "100", "200", "400"})
+  public int floors;
+
+  @Param({"100", "1000"})
+  public int elevators;
+
+  @Param({"OBJECTS", "FLEET"})
+  public ElevatorEngine engine;
+
+  private Building building;
+
+  /**
+   * Creates a fresh running building with ten pending requests per car.
+   */
+  @Setup(Level.Iteration)
+  public void setUp() {
+    building = new Building(floors, elevators, 10, new TerminalBatchDispatch(), engine);
+    building.startElevatorSystem();
+    SplittableRandom random = new SplittableRandom(42);
+    for (int i = 0; i < elevators * 10; i++) {
+      int from = random.nextInt(floors);
+      int to = random.nextInt(floors - 1);
+      building.addRequest(new Request(from, to >= from ? to + 1 : to));
+    }
+  }
+
+  /**
+   * Measures one tick of the whole building.
+   */
+  @Benchmark
+  public void triggerElevatorStep() {
+    building.triggerElevatorStep();
+  }
+}
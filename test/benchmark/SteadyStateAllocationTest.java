@@ -0,0 +1,57 @@
+package benchmark;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+/**
+ * This class runs {@link SteadyStateTickBenchmark} with the GC profiler and checks that a
+ * tick under steady traffic allocates nothing, for every dispatch strategy and engine.
+ * The iterations are shorter than in a benchmark run; the allocation rate settles long
+ * before the timing does.
+ */
+public class SteadyStateAllocationTest {
+  /**
+   * The bytes per tick tolerated for what JMH itself allocates around an iteration, spread
+   * over millions of ticks. A single object per tick is at least 16 bytes.
+   */
+  private static final double MAX_BYTES_PER_TICK = 1.0;
+
+  @Test
+  public void testSteadyStateTickDoesNotAllocate() throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(SteadyStateTickBenchmark.class.getName())
+        .addProfiler(GCProfiler.class)
+        .warmupIterations(3)
+        .warmupTime(TimeValue.milliseconds(500))
+        .measurementIterations(2)
+        .measurementTime(TimeValue.milliseconds(500))
+        .timeUnit(TimeUnit.NANOSECONDS)
+        .forks(1)
+        .shouldFailOnError(true)
+        .verbosity(VerboseMode.SILENT)
+        .build();
+    Collection<RunResult> results = new Runner(options).run();
+    assertFalse(results.isEmpty());
+    for (RunResult result : results) {
+      Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+      String params = result.getParams().getParam("dispatch") + "/"
+          + result.getParams().getParam("engine");
+      assertTrue("No allocation rate for " + params, allocation != null);
+      assertTrue(params + " allocates " + allocation.getScore() + " bytes per tick",
+          allocation.getScore() < MAX_BYTES_PER_TICK);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import model.building.Building;
+import model.building.CollectiveControlDispatch;
+import model.building.DispatchStrategy;
+import model.building.NearestCarDispatch;
+import model.building.TerminalBatchDispatch;
+import model.building.enums.ElevatorEngine;
+import model.scanerzus.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for one tick of a building under steady traffic: a request arrives every
+ * few ticks while the elevators keep picking up and dropping off passengers. Requests come
+ * from a pool built up front, so with {@code -prof gc} the {@code gc.alloc.rate.norm}
+ * column shows what the tick itself allocates, which should be nothing.
+ * {@link SteadyStateAllocationTest} runs this benchmark as part of the test suite.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SteadyStateTickBenchmark {
+  /**
+   * The number of ticks between two requests, well below what the elevators can carry.
+   */
+  private static final int TICKS_PER_REQUEST = 4;
+
+  /**
+   * The size of the request pool. A request is only reused long after it was delivered.
+   */
+  private static final int POOL_SIZE = 1 << 14;
+
+  @Param({"terminal", "collective", "nearest"})
+  public String dispatch;
+
+  @Param({"OBJECTS", "FLEET"})
+  public ElevatorEngine engine;
+
+  private Building building;
+  private Request[] requests;
+  private int next;
+  private int ticks;
+
+  /**
+   * Creates a running building and the pool of requests it is fed from.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    building = new Building(30, 8, 10, createDispatchStrategy(dispatch), engine);
+    building.startElevatorSystem();
+    SplittableRandom random = new SplittableRandom(42);
+    requests = new Request[POOL_SIZE];
+    for (int i = 0; i < requests.length; i++) {
+      int from = random.nextInt(30);
+      int to = random.nextInt(29);
+      requests[i] = new Request(from, to >= from ? to + 1 : to);
+    }
+  }
+
+  /**
+   * Measures one tick, including the request arriving on it if any.
+   */
+  @Benchmark
+  public void triggerElevatorStep() {
+    if (++ticks == TICKS_PER_REQUEST) {
+      building.addRequest(requests[next]);
+      next = (next + 1) & (POOL_SIZE - 1);
+      ticks = 0;
+    }
+    building.triggerElevatorStep();
+  }
+
+  /**
+   * Creates the dispatch strategy of the benchmark.
+   *
+   * @param name terminal, collective or nearest.
+   * @return the strategy.
+   */
+  private static DispatchStrategy createDispatchStrategy(String name) {
+    switch (name) {
+      case "collective":
+        return new CollectiveControlDispatch();
+      case "nearest":
+        return new NearestCarDispatch();
+      default:
+        return new TerminalBatchDispatch();
+    }
+  }
+}
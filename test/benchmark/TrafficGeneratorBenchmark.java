@@ -0,0 +1,56 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.scanerzus.TrafficGenerator;
+import model.scanerzus.TrafficProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmark for the synthetic traffic generator, in requests per microsecond.
+ * The generator must stay well ahead of the simulation it feeds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficGeneratorBenchmark {
+
+  @Param({"UNIFORM", "UP_PEAK", "LUNCH"})
+  public TrafficProfile profile;
+
+  @Param({"30", "200"})
+  public int floors;
+
+  private TrafficGenerator generator;
+
+  /**
+   * Creates the generator.
+   */
+  @Setup
+  public void setUp() {
+    generator = new TrafficGenerator(profile, 1.0, floors, 42);
+  }
+
+  /**
+   * Measures drawing one request with the cursor.
+   *
+   * @return the start floor, so the draw is not optimized away.
+   */
+  @Benchmark
+  public int next() {
+    generator.next();
+    return generator.getStartFloor() + generator.getEndFloor();
+  }
+}
@@ -1,13 +1,29 @@
 package model.building;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import model.building.enums.ElevatorEngine;
 import model.building.enums.ElevatorSystemStatus;
-import model.elevator.Elevator;
+import model.elevator.ElevatorInterface;
 import model.elevator.ElevatorReport;
 import model.scanerzus.Request;
 import org.junit.After;
@@ -27,9 +43,6 @@ public class BuildingTest {
    */
   @Before
   public void setUp() {
-    // reset the static counter in Elevator
-    // so that the model.elevator IDs are consistent across tests
-    Elevator.resetStaticCounter();
     // redirect the output stream
     System.setOut(new PrintStream(outContent));
     testBuilding = new Building(11, 8, 3);
@@ -56,6 +69,11 @@ public class BuildingTest {
     new Building(11, 8, 0);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorWithoutDispatchStrategy() {
+    new Building(11, 8, 3, null);
+  }
+
   @Test
   public void testConstructorValid() {
     assertEquals(11, testBuilding.getNumberOfFloors());
@@ -111,6 +129,240 @@ public class BuildingTest {
     testBuilding.addRequest(new Request(1, 2));
   }
 
+  @Test
+  public void testAddRequestsSkipsInvalid() {
+    testBuilding.startElevatorSystem();
+    testBuilding.triggerElevatorSteps(3);
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(1, 4));
+    requests.add(new Request(1, 11));
+    requests.add(null);
+    requests.add(new Request(5, 5));
+    requests.add(new Request(9, 2));
+    assertEquals(2, testBuilding.addRequests(requests));
+    assertEquals(3, requests.get(0).getArrivalTick());
+    assertEquals(-1, requests.get(1).getArrivalTick());
+    assertEquals(3, requests.get(4).getArrivalTick());
+    BuildingReport report = testBuilding.getElevatorSystemStatus();
+    assertEquals(1, report.getUpRequests().size());
+    assertEquals(1, report.getDownRequests().size());
+  }
+
+  @Test
+  public void testAddRequestsWhileOutOfService() {
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(1, 4));
+    assertEquals(0, testBuilding.addRequests(requests));
+    assertEquals(0, testBuilding.addRequests(new int[] {1}, new int[] {4}, 1));
+  }
+
+  @Test
+  public void testAddRequestsFromArraysMatchesAddRequest() {
+    Building single = new Building(11, 8, 3);
+    single.startElevatorSystem();
+    testBuilding.startElevatorSystem();
+    Random random = new Random(5);
+    int[] from = new int[400];
+    int[] to = new int[400];
+    int valid = 0;
+    for (int i = 0; i < from.length; i++) {
+      from[i] = random.nextInt(13) - 1;
+      to[i] = random.nextInt(13) - 1;
+      if (from[i] >= 0 && from[i] < 11 && to[i] >= 0 && to[i] < 11 && from[i] != to[i]) {
+        single.addRequest(new Request(from[i], to[i]));
+        valid++;
+      }
+    }
+    assertEquals(valid, testBuilding.addRequests(from, to, from.length));
+    single.triggerElevatorSteps(2000);
+    testBuilding.triggerElevatorSteps(2000);
+    assertEquals(single.getElevatorSystemStatus().toString(),
+        testBuilding.getElevatorSystemStatus().toString());
+    assertEquals(single.getJourneyTimeHistogram().toString(),
+        testBuilding.getJourneyTimeHistogram().toString());
+  }
+
+  @Test
+  public void testAddRequestFloorsMatchesAddRequest() {
+    Building objects = new Building(11, 8, 3, new CollectiveControlDispatch());
+    Building floors = new Building(11, 8, 3, new CollectiveControlDispatch());
+    objects.startElevatorSystem();
+    floors.startElevatorSystem();
+    Random random = new Random(9);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (random.nextInt(3) == 0) {
+        int from = random.nextInt(11);
+        int to = (from + 1 + random.nextInt(10)) % 11;
+        assertTrue(objects.addRequest(new Request(from, to)));
+        assertTrue(floors.addRequest(from, to));
+      }
+      objects.triggerElevatorStep();
+      floors.triggerElevatorStep();
+    }
+    assertEquals(objects.getElevatorSystemStatus().toString(),
+        floors.getElevatorSystemStatus().toString());
+    assertEquals(objects.getWaitTimeHistogram().toString(),
+        floors.getWaitTimeHistogram().toString());
+    assertEquals(objects.getJourneyTimeHistogram().toString(),
+        floors.getJourneyTimeHistogram().toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddRequestFloorsInvalid() {
+    testBuilding.startElevatorSystem();
+    testBuilding.addRequest(4, 4);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAddRequestFloorsOutOfService() {
+    testBuilding.addRequest(1, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorWithTooManyFloors() {
+    new Building(RequestQueue.MAX_FLOORS + 1, 1, 3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddRequestsArraysTooShort() {
+    testBuilding.startElevatorSystem();
+    testBuilding.addRequests(new int[] {1, 2}, new int[] {3}, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSubmitRequestInvalid() {
+    testBuilding.startElevatorSystem();
+    testBuilding.submitRequest(new Request(1, 11));
+  }
+
+  @Test
+  public void testSubmitRequestIsQueuedAtNextTick() {
+    testBuilding.startElevatorSystem();
+    testBuilding.triggerElevatorSteps(5);
+    Request request = new Request(3, 7);
+    assertTrue(testBuilding.submitRequest(request));
+    assertEquals(-1, request.getArrivalTick());
+    testBuilding.triggerElevatorStep();
+    assertEquals(5, request.getArrivalTick());
+    testBuilding.triggerElevatorSteps(200);
+    assertEquals(1, testBuilding.getJourneyTimeHistogram().getCount());
+  }
+
+  @Test
+  public void testSubmitRequestWhileOutOfServiceIsDropped() {
+    testBuilding.submitRequest(new Request(1, 2));
+    testBuilding.submitRequest(new Request(2, 1));
+    testBuilding.triggerElevatorStep();
+    assertEquals(2, testBuilding.getDroppedRequestCount());
+    testBuilding.startElevatorSystem();
+    testBuilding.triggerElevatorSteps(100);
+    assertEquals(0, testBuilding.getWaitTimeHistogram().getCount());
+  }
+
+  @Test
+  public void testSubmitRequestRejectedWhenInboxIsFull() {
+    testBuilding.startElevatorSystem();
+    testBuilding.setInboxCapacity(2);
+    assertTrue(testBuilding.submitRequest(new Request(1, 2)));
+    assertTrue(testBuilding.submitRequest(new Request(2, 3)));
+    assertFalse(testBuilding.submitRequest(new Request(3, 4)));
+    testBuilding.triggerElevatorStep();
+    assertTrue(testBuilding.submitRequest(new Request(3, 4)));
+  }
+
+  @Test
+  public void testSubmitRequestFromManyThreads() throws InterruptedException {
+    final int producers = 8;
+    final int perProducer = 250;
+    Building building = new Building(11, 8, 3, new CollectiveControlDispatch());
+    building.startElevatorSystem();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      final long seed = p;
+      threads[p] = new Thread(() -> {
+        Random random = new Random(seed);
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < perProducer; i++) {
+          int from = random.nextInt(11);
+          building.submitRequest(new Request(from, (from + 1 + random.nextInt(10)) % 11));
+        }
+      });
+      threads[p].start();
+    }
+    start.countDown();
+    // keep stepping while the producers run, the inbox is drained at every tick
+    while (isAnyAlive(threads)) {
+      building.triggerElevatorStep();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int tick = 0; tick < 100_000
+        && building.getJourneyTimeHistogram().getCount() < producers * perProducer; tick++) {
+      building.triggerElevatorStep();
+    }
+    assertEquals(producers * perProducer, building.getWaitTimeHistogram().getCount());
+    assertEquals(producers * perProducer, building.getJourneyTimeHistogram().getCount());
+    assertEquals(0, building.getDroppedRequestCount());
+  }
+
+  @Test
+  public void testBuildingsOnSeparateThreadsMatchSerialRuns() throws Exception {
+    final int runs = 4;
+    String[] serial = new String[runs];
+    for (int i = 0; i < runs; i++) {
+      serial[i] = runSeeded(i);
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(runs);
+    try {
+      List<Future<String>> parallel = new ArrayList<>();
+      for (int i = 0; i < runs; i++) {
+        final int seed = i;
+        parallel.add(executor.submit(() -> runSeeded(seed)));
+      }
+      for (int i = 0; i < runs; i++) {
+        assertEquals(serial[i], parallel.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Runs a building with seeded random traffic and summarizes the outcome.
+   *
+   * @param seed The seed of the traffic.
+   * @return the final report and both histograms.
+   */
+  private static String runSeeded(long seed) {
+    Building building = new Building(15, 3, 4, new NearestCarDispatch());
+    building.startElevatorSystem();
+    Random random = new Random(seed);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (random.nextInt(4) == 0) {
+        int from = random.nextInt(15);
+        building.addRequest(new Request(from, (from + 1 + random.nextInt(14)) % 15));
+      }
+      building.triggerElevatorStep();
+    }
+    return building.getElevatorSystemStatus() + " " + building.getWaitTimeHistogram()
+        + " " + building.getJourneyTimeHistogram();
+  }
+
+  private static boolean isAnyAlive(Thread[] threads) {
+    for (Thread thread : threads) {
+      if (thread.isAlive()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Test
   public void testAddRequestValid() {
     testBuilding.startElevatorSystem();
@@ -168,6 +420,54 @@ public class BuildingTest {
     assertTrue(testBuilding.getElevatorSystemStatus().getDownRequests().isEmpty());
   }
 
+  @Test
+  public void testStatusIsReusedWhileUnchanged() {
+    BuildingReport stopped = testBuilding.getElevatorSystemStatus();
+    assertSame(stopped, testBuilding.getElevatorSystemStatus());
+    testBuilding.startElevatorSystem();
+    BuildingReport started = testBuilding.getElevatorSystemStatus();
+    assertNotSame(stopped, started);
+    assertSame(started, testBuilding.getElevatorSystemStatus());
+
+    testBuilding.addRequest(new Request(3, 1));
+    BuildingReport queued = testBuilding.getElevatorSystemStatus();
+    assertNotSame(started, queued);
+    assertEquals(1, queued.getDownRequests().size());
+    assertSame(queued, testBuilding.getElevatorSystemStatus());
+
+    testBuilding.triggerElevatorStep();
+    BuildingReport stepped = testBuilding.getElevatorSystemStatus();
+    assertNotSame(queued, stepped);
+    assertTrue(stepped.getElevatorReports()[0].getVersion()
+        > queued.getElevatorReports()[0].getVersion());
+    testBuilding.clearRequests();
+    assertTrue(testBuilding.getElevatorSystemStatus().getDownRequests().isEmpty());
+  }
+
+  @Test
+  public void testCarTopsUpWhenPassengersHaveLeft() {
+    testBuilding = new Building(11, 1, 3, new CollectiveControlDispatch());
+    testBuilding.startElevatorSystem();
+    for (int i = 0; i < 3; i++) {
+      testBuilding.addRequest(1, 3);
+      testBuilding.addRequest(4, 6);
+    }
+    ElevatorInterface car = testBuilding.getElevators().get(0);
+    while (car.getCurrentFloor() < 10) {
+      testBuilding.triggerElevatorStep();
+    }
+    // six passengers on one run of a car for three, never more than three on board
+    assertEquals(6, testBuilding.getJourneyTimeHistogram().getCount());
+    assertEquals(10, car.getFloorsTravelled());
+    assertEquals(12, car.getPassengerFloors());
+    assertEquals(12 / 30.0, testBuilding.getCarUtilization(), 1e-9);
+  }
+
+  @Test
+  public void testCarUtilizationBeforeAnyTravel() {
+    assertEquals(0, testBuilding.getCarUtilization(), 0);
+  }
+
   @Test
   public void testUpRequestsComplete() {
     testBuilding.startElevatorSystem();
@@ -320,4 +620,405 @@ public class BuildingTest {
     }
 
   }
+
+  @Test
+  public void testTriggerElevatorStepsMatchesSingleSteps() {
+    assertSkippingMatchesStepping(TerminalBatchDispatch::new, ElevatorEngine.OBJECTS);
+  }
+
+  @Test
+  public void testTriggerElevatorStepsMatchesSingleStepsCollective() {
+    assertSkippingMatchesStepping(CollectiveControlDispatch::new, ElevatorEngine.OBJECTS);
+  }
+
+  @Test
+  public void testTriggerElevatorStepsMatchesSingleStepsNearestCar() {
+    assertSkippingMatchesStepping(NearestCarDispatch::new, ElevatorEngine.OBJECTS);
+  }
+
+  @Test
+  public void testFleetEngineMatchesObjectsTerminal() {
+    assertSkippingMatchesStepping(TerminalBatchDispatch::new, ElevatorEngine.FLEET);
+  }
+
+  @Test
+  public void testFleetEngineMatchesObjectsCollective() {
+    assertSkippingMatchesStepping(CollectiveControlDispatch::new, ElevatorEngine.FLEET);
+  }
+
+  @Test
+  public void testFleetEngineMatchesObjectsNearestCar() {
+    assertSkippingMatchesStepping(NearestCarDispatch::new, ElevatorEngine.FLEET);
+  }
+
+  @Test
+  public void testFleetEngineCheckpointRestoresIntoObjects() throws IOException {
+    Building fleet = new Building(20, 4, 3, new TerminalBatchDispatch(), ElevatorEngine.FLEET);
+    assertEquals(ElevatorEngine.FLEET, fleet.getElevatorEngine());
+    fleet.startElevatorSystem();
+    Random random = new Random(21);
+    for (int tick = 0; tick < 800; tick++) {
+      if (random.nextInt(4) == 0) {
+        int from = random.nextInt(20);
+        fleet.addRequest(new Request(from, (from + 1 + random.nextInt(19)) % 20));
+      }
+      fleet.triggerElevatorStep();
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    fleet.writeCheckpoint(new DataOutputStream(bytes));
+    Building objects = Building.readCheckpoint(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals(ElevatorEngine.OBJECTS, objects.getElevatorEngine());
+    fleet.triggerElevatorSteps(500);
+    objects.triggerElevatorSteps(500);
+    assertEquals(fleet.getElevatorSystemStatus().toString(),
+        objects.getElevatorSystemStatus().toString());
+    assertEquals(fleet.getJourneyTimeHistogram().toString(),
+        objects.getJourneyTimeHistogram().toString());
+  }
+
+  /**
+   * Replays the same random traffic tick by tick and with time skipping,
+   * comparing the two buildings every time a request arrives.
+   *
+   * @param strategy creates the dispatch strategy of each building.
+   * @param engine the engine of the building that skips; the stepped one uses objects.
+   */
+  private void assertSkippingMatchesStepping(Supplier<DispatchStrategy> strategy,
+                                             ElevatorEngine engine) {
+    Building stepped = new Building(20, 4, 3, strategy.get());
+    Building skipped = new Building(20, 4, 3, strategy.get(), engine);
+    stepped.startElevatorSystem();
+    skipped.startElevatorSystem();
+
+    Random random = new Random(7);
+    for (int i = 0; i < 200; i++) {
+      int gap = random.nextInt(60);
+      for (int j = 0; j < gap; j++) {
+        stepped.triggerElevatorStep();
+      }
+      skipped.triggerElevatorSteps(gap);
+      assertEquals(stepped.getCurrentTick(), skipped.getCurrentTick());
+      assertArrayEquals(stepped.getElevatorSystemStatus().getElevatorReports(),
+          skipped.getElevatorSystemStatus().getElevatorReports());
+      assertEquals(stepped.getElevatorSystemStatus().toString(),
+          skipped.getElevatorSystemStatus().toString());
+
+      int from = random.nextInt(20);
+      int to = (from + 1 + random.nextInt(19)) % 20;
+      stepped.addRequest(new Request(from, to));
+      skipped.addRequest(new Request(from, to));
+    }
+
+    // stopping sends every model.elevator back to the ground floor
+    stepped.stopElevatorSystem();
+    skipped.stopElevatorSystem();
+    for (int j = 0; j < 100; j++) {
+      stepped.triggerElevatorStep();
+    }
+    skipped.triggerElevatorSteps(100);
+    assertEquals(ElevatorSystemStatus.outOfService, skipped.getElevatorStatus());
+    assertArrayEquals(stepped.getElevatorSystemStatus().getElevatorReports(),
+        skipped.getElevatorSystemStatus().getElevatorReports());
+    assertEquals(stepped.getWaitTimeHistogram().toString(),
+        skipped.getWaitTimeHistogram().toString());
+    assertEquals(stepped.getJourneyTimeHistogram().toString(),
+        skipped.getJourneyTimeHistogram().toString());
+  }
+
+  @Test
+  public void testAdvanceToNextEventSkipsQuietTicks() {
+    testBuilding.startElevatorSystem();
+    // all elevators wait 5 ticks at the ground floor before moving
+    assertEquals(5, testBuilding.advanceToNextEvent(100));
+    assertEquals(5, testBuilding.getCurrentTick());
+    // then run without stops to the top floor
+    assertEquals(10, testBuilding.advanceToNextEvent(100));
+    assertEquals(10,
+        testBuilding.getElevatorSystemStatus().getElevatorReports()[0].getCurrentFloor());
+  }
+
+  @Test
+  public void testRequestLifecycleIsStamped() {
+    testBuilding = new Building(11, 1, 3);
+    testBuilding.startElevatorSystem();
+    testBuilding.triggerElevatorStep();
+    Request request = new Request(0, 10);
+    testBuilding.addRequest(request);
+    assertEquals(1, request.getArrivalTick());
+    assertEquals(-1, request.getPickupTick());
+
+    // the door opens at the ground floor on the next tick
+    testBuilding.triggerElevatorStep();
+    assertEquals(2, request.getPickupTick());
+    // three ticks with the door open, ten floors up, then the door opens
+    testBuilding.triggerElevatorSteps(14);
+    assertEquals(16, request.getDropOffTick());
+
+    assertEquals(1, testBuilding.getWaitTimeHistogram().getCount());
+    assertEquals(1, testBuilding.getWaitTimeHistogram().getMax());
+    assertEquals(15, testBuilding.getJourneyTimeHistogram().getMax());
+  }
+
+  @Test
+  public void testCheckpointResumesExactly() throws IOException {
+    Building original = new Building(20, 4, 5, new CollectiveControlDispatch());
+    original.startElevatorSystem();
+    Random random = new Random(13);
+    for (int tick = 0; tick < 1500; tick++) {
+      if (random.nextInt(3) == 0) {
+        int from = random.nextInt(20);
+        original.addRequest(new Request(from, (from + 1 + random.nextInt(19)) % 20));
+      }
+      original.triggerElevatorStep();
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    original.writeCheckpoint(new DataOutputStream(bytes));
+    Building restored = Building.readCheckpoint(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+        new CollectiveControlDispatch());
+
+    assertEquals(original.getCurrentTick(), restored.getCurrentTick());
+    assertEquals(original.getElevatorSystemStatus().toString(),
+        restored.getElevatorSystemStatus().toString());
+    for (int tick = 0; tick < 1500; tick++) {
+      if (random.nextInt(3) == 0) {
+        int from = random.nextInt(20);
+        int to = (from + 1 + random.nextInt(19)) % 20;
+        original.addRequest(new Request(from, to));
+        restored.addRequest(new Request(from, to));
+      }
+      original.triggerElevatorStep();
+      restored.triggerElevatorStep();
+    }
+    original.stopElevatorSystem();
+    restored.stopElevatorSystem();
+    original.triggerElevatorSteps(100);
+    restored.triggerElevatorSteps(100);
+    assertEquals(original.getElevatorSystemStatus().toString(),
+        restored.getElevatorSystemStatus().toString());
+    assertEquals(original.getWaitTimeHistogram().toString(),
+        restored.getWaitTimeHistogram().toString());
+    assertEquals(original.getJourneyTimeHistogram().toString(),
+        restored.getJourneyTimeHistogram().toString());
+  }
+
+  @Test(expected = IOException.class)
+  public void testReadCheckpointRejectsOtherData() throws IOException {
+    Building.readCheckpoint(new DataInputStream(new ByteArrayInputStream(new byte[16])));
+  }
+
+  @Test
+  public void testInFlightDispatchPicksUpOnTheWay() {
+    Building inFlight = new Building(11, 1, 3, new CollectiveControlDispatch());
+    assertTrue(inFlight.getDispatchStrategy() instanceof CollectiveControlDispatch);
+    assertTrue(testBuilding.getDispatchStrategy() instanceof TerminalBatchDispatch);
+    testBuilding = new Building(11, 1, 3);
+
+    for (Building building : new Building[] {inFlight, testBuilding}) {
+      building.startElevatorSystem();
+      building.addRequest(new Request(0, 10));
+      // door at the ground floor, then up two floors
+      for (int i = 0; i < 6; i++) {
+        building.triggerElevatorStep();
+      }
+      building.addRequest(new Request(5, 7));
+      building.triggerElevatorStep();
+    }
+
+    BuildingReport report = inFlight.getElevatorSystemStatus();
+    assertEquals(0, report.getUpRequests().size());
+    assertTrue(report.getElevatorReports()[0].hasFloorRequest(5));
+    assertTrue(report.getElevatorReports()[0].hasFloorRequest(7));
+
+    // without in-flight dispatch the request waits for the next run from the ground floor
+    report = testBuilding.getElevatorSystemStatus();
+    assertEquals(1, report.getUpRequests().size());
+    assertFalse(report.getElevatorReports()[0].hasFloorRequest(5));
+  }
+
+  @Test
+  public void testParallelStepMatchesSerialStep() {
+    Building serial = new Building(20, 300, 3);
+    Building parallel = new Building(20, 300, 3);
+    parallel.setStepParallelism(4);
+    assertEquals(4, parallel.getStepParallelism());
+    serial.startElevatorSystem();
+    parallel.startElevatorSystem();
+
+    Random random = new Random(11);
+    for (int tick = 0; tick < 500; tick++) {
+      if (random.nextInt(3) == 0) {
+        int from = random.nextInt(20);
+        int to = (from + 1 + random.nextInt(19)) % 20;
+        serial.addRequest(new Request(from, to));
+        parallel.addRequest(new Request(from, to));
+      }
+      serial.triggerElevatorStep();
+      parallel.triggerElevatorStep();
+    }
+    parallel.triggerElevatorSteps(1000);
+    serial.triggerElevatorSteps(1000);
+    assertEquals(serial.getElevatorSystemStatus().toString(),
+        parallel.getElevatorSystemStatus().toString());
+
+    parallel.setStepParallelism(1);
+    assertEquals(1, parallel.getStepParallelism());
+  }
+
+  @Test
+  public void testElevatorIdsArePerBuilding() throws InterruptedException {
+    // buildings created on several threads at once each number their elevators from 0
+    Building[] buildings = new Building[8];
+    Thread[] threads = new Thread[buildings.length];
+    for (int t = 0; t < threads.length; t++) {
+      final int index = t;
+      threads[t] = new Thread(() -> buildings[index] = new Building(11, 50, 3));
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (Building building : buildings) {
+      for (int i = 0; i < 50; i++) {
+        assertEquals(i, building.getElevators().get(i).getElevatorId());
+      }
+    }
+  }
+
+  @Test
+  public void testListenerMirrorsTheCars() {
+    for (ElevatorEngine engine : ElevatorEngine.values()) {
+      Building building = new Building(20, 4, 5, new CollectiveControlDispatch(), engine);
+      int[] floors = new int[4];
+      boolean[] doorsClosed = new boolean[4];
+      boolean[][] stops = new boolean[4][20];
+      int[] counts = new int[2];
+      for (int car = 0; car < 4; car++) {
+        doorsClosed[car] = building.getElevators().get(car).isDoorClosed();
+      }
+      building.addListener(new BuildingListener() {
+        @Override
+        public void requestQueued(int startFloor, int endFloor) {
+          counts[0]++;
+        }
+
+        @Override
+        public void requestAssigned(int car, Request request) {
+          counts[1]++;
+        }
+
+        @Override
+        public void carMoved(int car, int fromFloor, int toFloor) {
+          assertEquals(floors[car], fromFloor);
+          floors[car] = toFloor;
+        }
+
+        @Override
+        public void doorOpened(int car, int floor) {
+          assertTrue(doorsClosed[car]);
+          doorsClosed[car] = false;
+        }
+
+        @Override
+        public void doorClosed(int car, int floor) {
+          assertFalse(doorsClosed[car]);
+          doorsClosed[car] = true;
+        }
+
+        @Override
+        public void stopAdded(int car, int floor) {
+          assertFalse(stops[car][floor]);
+          stops[car][floor] = true;
+        }
+
+        @Override
+        public void stopCleared(int car, int floor) {
+          assertTrue(stops[car][floor]);
+          stops[car][floor] = false;
+        }
+      });
+      building.startElevatorSystem();
+      Random random = new Random(5);
+      for (int tick = 0; tick < 600; tick++) {
+        if (random.nextInt(3) == 0) {
+          int from = random.nextInt(20);
+          building.addRequest(from, (from + 1 + random.nextInt(19)) % 20);
+        }
+        if (tick < 400) {
+          building.triggerElevatorStep();
+        } else {
+          building.advanceToNextEvent(50);
+        }
+        for (int car = 0; car < 4; car++) {
+          ElevatorInterface elevator = building.getElevators().get(car);
+          assertEquals(engine + " car " + car, elevator.getCurrentFloor(), floors[car]);
+          assertEquals(elevator.isDoorClosed(), doorsClosed[car]);
+          assertArrayEquals(elevator.getFloorRequests(), stops[car]);
+        }
+      }
+      building.triggerElevatorSteps(2000);
+      assertEquals(0, building.getUpRequestCount() + building.getDownRequestCount());
+      assertTrue(counts[0] > 100);
+      assertEquals(counts[0], counts[1]);
+    }
+  }
+
+  @Test
+  public void testListenerFollowsStatusAndTrip() {
+    Building building = new Building(11, 1, 3);
+    List<String> events = new ArrayList<>();
+    BuildingListener listener = new BuildingListener() {
+      @Override
+      public void statusChanged(ElevatorSystemStatus previous, ElevatorSystemStatus current) {
+        events.add(previous.name() + ">" + current.name());
+      }
+
+      @Override
+      public void requestQueued(int startFloor, int endFloor) {
+        events.add("queued " + startFloor + ">" + endFloor);
+      }
+
+      @Override
+      public void requestAssigned(int car, Request request) {
+        events.add("assigned " + request.getStartFloor() + ">" + request.getEndFloor());
+      }
+
+      @Override
+      public void doorOpened(int car, int floor) {
+        events.add("open " + floor);
+      }
+
+      @Override
+      public void stopCleared(int car, int floor) {
+        events.add("served " + floor);
+      }
+    };
+    building.addListener(listener);
+    building.startElevatorSystem();
+    building.addRequest(new Request(3, 6));
+    building.triggerElevatorSteps(100);
+    building.stopElevatorSystem();
+    building.triggerElevatorSteps(100);
+
+    List<String> expected = List.of("outOfService>running", "queued 3>6", "assigned 3>6",
+        "open 3", "served 3", "open 6", "served 6", "running>stopping",
+        "stopping>outOfService");
+    List<String> seen = new ArrayList<>(events);
+    seen.retainAll(expected);
+    assertEquals(expected, seen);
+
+    assertTrue(building.removeListener(listener));
+    assertFalse(building.removeListener(listener));
+    events.clear();
+    building.startElevatorSystem();
+    building.addRequest(2, 4);
+    building.triggerElevatorSteps(100);
+    assertTrue(events.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddNullListener() {
+    testBuilding.addListener(null);
+  }
 }
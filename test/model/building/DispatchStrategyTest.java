@@ -0,0 +1,124 @@
+package model.building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import model.building.enums.Direction;
+import model.elevator.ElevatorInterface;
+import model.elevator.ElevatorReport;
+import model.scanerzus.Request;
+import org.junit.Test;
+
+/**
+ * This class tests the dispatch strategies on identical traffic.
+ */
+public class DispatchStrategyTest {
+
+  /**
+   * Feeds random traffic to a building and lets it run until every request is served.
+   *
+   * @param strategy creates the dispatch strategy.
+   * @param requests the list to collect the requests fed to the building in.
+   * @return the building after the run.
+   */
+  private static Building drain(Supplier<DispatchStrategy> strategy, List<Request> requests) {
+    Building building = new Building(15, 3, 4, strategy.get());
+    building.startElevatorSystem();
+    Random random = new Random(3);
+    for (int tick = 0; tick < 2000; tick++) {
+      if (random.nextInt(4) == 0) {
+        int from = random.nextInt(15);
+        int to = (from + 1 + random.nextInt(14)) % 15;
+        Request request = new Request(from, to);
+        building.addRequest(request);
+        requests.add(request);
+      }
+      building.triggerElevatorStep();
+    }
+    building.triggerElevatorSteps(2000);
+    return building;
+  }
+
+  /**
+   * Runs random traffic with a strategy and asserts that every request was served
+   * and no model.elevator has a stop left.
+   *
+   * @param strategy creates the dispatch strategy.
+   */
+  private static void assertAllServed(Supplier<DispatchStrategy> strategy) {
+    List<Request> requests = new ArrayList<>();
+    Building building = drain(strategy, requests);
+    BuildingReport report = building.getElevatorSystemStatus();
+    assertEquals(0, report.getUpRequests().size());
+    assertEquals(0, report.getDownRequests().size());
+    for (ElevatorReport elevator : report.getElevatorReports()) {
+      for (boolean stop : elevator.getFloorRequests()) {
+        assertFalse(stop);
+      }
+    }
+    // every passenger was picked up and dropped off exactly once
+    for (Request request : requests) {
+      assertTrue(request.getArrivalTick() < request.getPickupTick());
+      assertTrue(request.getPickupTick() < request.getDropOffTick());
+    }
+    assertEquals(requests.size(), building.getWaitTimeHistogram().getCount());
+    assertEquals(requests.size(), building.getJourneyTimeHistogram().getCount());
+  }
+
+  @Test
+  public void testEveryStrategyServesAllRequests() {
+    assertAllServed(TerminalBatchDispatch::new);
+    assertAllServed(CollectiveControlDispatch::new);
+    assertAllServed(NearestCarDispatch::new);
+  }
+
+  @Test
+  public void testNearestCarPicksUpOnTheWay() {
+    Building building = new Building(11, 1, 3, new NearestCarDispatch());
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 10));
+    for (int i = 0; i < 6; i++) {
+      building.triggerElevatorStep();
+    }
+    building.addRequest(new Request(5, 7));
+    building.triggerElevatorStep();
+
+    ElevatorReport report = building.getElevatorSystemStatus().getElevatorReports()[0];
+    assertTrue(report.hasFloorRequest(5));
+    assertTrue(report.hasFloorRequest(7));
+  }
+
+  @Test
+  public void testNearestCarSendsOffWaitingElevator() {
+    Building building = new Building(11, 2, 3, new NearestCarDispatch());
+    building.startElevatorSystem();
+    building.addRequest(new Request(4, 9));
+    building.triggerElevatorStep();
+
+    // the first model.elevator is sent off at once, the second keeps waiting
+    ElevatorInterface first = building.getElevators().get(0);
+    ElevatorInterface second = building.getElevators().get(1);
+    assertEquals(2, first.getStopCount());
+    assertEquals(Direction.UP, first.getDirection());
+    assertEquals(0, second.getStopCount());
+    assertTrue(second.isTakingRequests());
+  }
+
+  @Test
+  public void testTerminalBatchIgnoresMovingElevators() {
+    Building building = new Building(11, 1, 3, new TerminalBatchDispatch());
+    building.startElevatorSystem();
+    building.addRequest(new Request(0, 10));
+    for (int i = 0; i < 6; i++) {
+      building.triggerElevatorStep();
+    }
+    building.addRequest(new Request(5, 7));
+    building.triggerElevatorStep();
+    assertEquals(1, building.getElevatorSystemStatus().getUpRequests().size());
+  }
+}
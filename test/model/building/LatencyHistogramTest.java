@@ -0,0 +1,94 @@
+package model.building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.Test;
+
+/**
+ * This class tests the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+  @Test
+  public void testEmptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(0.0, histogram.getMean(), 0.0);
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 20; i++) {
+      histogram.record(i);
+    }
+    assertEquals(20, histogram.getCount());
+    assertEquals(10, histogram.getValueAtPercentile(50));
+    assertEquals(18, histogram.getValueAtPercentile(90));
+    assertEquals(20, histogram.getValueAtPercentile(100));
+    assertEquals(1, histogram.getValueAtPercentile(0));
+    assertEquals(10.5, histogram.getMean(), 1e-9);
+  }
+
+  @Test
+  public void testLargeValuesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 100000; i++) {
+      histogram.record(i);
+    }
+    long p50 = histogram.getValueAtPercentile(50);
+    long p99 = histogram.getValueAtPercentile(99);
+    assertTrue(p50 >= 50000 && p50 <= 50000 * 17 / 16);
+    assertTrue(p99 >= 99000 && p99 <= 100000);
+    assertEquals(100000, histogram.getMax());
+  }
+
+  @Test
+  public void testExtremeValue() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50));
+  }
+
+  @Test
+  public void testAddAndReset() {
+    LatencyHistogram first = new LatencyHistogram();
+    LatencyHistogram second = new LatencyHistogram();
+    first.record(3);
+    second.record(700);
+    first.add(second);
+    assertEquals(2, first.getCount());
+    assertEquals(700, first.getMax());
+    first.reset();
+    assertEquals(0, first.getCount());
+    assertEquals(0, first.getMax());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValueIsRejected() {
+    new LatencyHistogram().record(-1);
+  }
+
+  @Test
+  public void testWriteAndRead() throws IOException {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 0; i < 5000; i += 7) {
+      histogram.record(i);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    histogram.writeTo(new DataOutputStream(bytes));
+
+    LatencyHistogram copy = new LatencyHistogram();
+    copy.record(123456);
+    copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals(histogram.toString(), copy.toString());
+    assertEquals(histogram.getValueAtPercentile(75), copy.getValueAtPercentile(75));
+  }
+}
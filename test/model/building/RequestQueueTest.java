@@ -0,0 +1,192 @@
+package model.building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import model.scanerzus.Request;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the RequestQueue class.
+ */
+public class RequestQueueTest {
+  private RequestQueue queue;
+  private Request first;
+  private Request second;
+  private Request third;
+
+  /**
+   * Set up the test.
+   */
+  @Before
+  public void setUp() {
+    queue = new RequestQueue(10);
+    first = new Request(1, 5);
+    second = new Request(2, 6);
+    third = new Request(1, 7);
+    queue.add(first);
+    queue.add(second);
+    queue.add(third);
+  }
+
+  @Test
+  public void testSizes() {
+    assertEquals(3, queue.size());
+    assertEquals(2, queue.sizeAtFloor(1));
+    assertEquals(1, queue.sizeAtFloor(2));
+    assertEquals(0, queue.sizeAtFloor(3));
+  }
+
+  @Test
+  public void testPeekFirstKeepsArrivalOrder() {
+    List<Request> out = new ArrayList<>();
+    assertEquals(2, queue.peekFirst(2, out));
+    assertSame(first, out.get(0));
+    assertSame(second, out.get(1));
+    assertEquals(3, queue.size());
+  }
+
+  @Test
+  public void testRemoveFirst() {
+    assertEquals(2, queue.removeFirst(2));
+    assertEquals(1, queue.size());
+    assertEquals(1, queue.sizeAtFloor(1));
+    assertEquals(0, queue.sizeAtFloor(2));
+    assertSame(third, queue.toList().get(0));
+    assertEquals(1, queue.removeFirst(5));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testPollFirstAtFloor() {
+    assertSame(first, queue.pollFirstAtFloor(1));
+    assertSame(third, queue.pollFirstAtFloor(1));
+    assertNull(queue.pollFirstAtFloor(1));
+    List<Request> remaining = queue.toList();
+    assertEquals(1, remaining.size());
+    assertSame(second, remaining.get(0));
+  }
+
+  @Test
+  public void testRemoveFromMiddleThenAdd() {
+    queue.pollFirstAtFloor(2);
+    Request fourth = new Request(2, 3);
+    queue.add(fourth);
+    List<Request> list = queue.toList();
+    assertSame(first, list.get(0));
+    assertSame(third, list.get(1));
+    assertSame(fourth, list.get(2));
+  }
+
+  @Test
+  public void testClear() {
+    queue.clear();
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.sizeAtFloor(1));
+    assertTrue(queue.toList().isEmpty());
+    queue.add(second);
+    assertSame(second, queue.pollFirstAtFloor(2));
+  }
+
+  @Test
+  public void testGrowsPastInitialCapacity() {
+    for (int i = 0; i < 1000; i++) {
+      queue.add(new Request(i % 10, (i + 1) % 10));
+    }
+    assertEquals(1003, queue.size());
+    assertEquals(1003, queue.removeFirst(2000));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testWriteAndReadKeepOrderAndTicks() throws IOException {
+    first.stampArrival(7);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    queue.writeTo(new DataOutputStream(bytes));
+
+    RequestQueue copy = new RequestQueue(10);
+    copy.add(new Request(9, 1));
+    copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals(3, copy.size());
+    assertEquals(2, copy.sizeAtFloor(1));
+    assertEquals(0, copy.sizeAtFloor(9));
+    List<Request> requests = copy.toList();
+    assertEquals("1->5", requests.get(0).toString());
+    assertEquals(7, requests.get(0).getArrivalTick());
+    assertEquals("2->6", requests.get(1).toString());
+  }
+
+  @Test
+  public void testPackedRequestIsMadeOnceWhenHandedOut() {
+    queue.clear();
+    queue.add(4, 9, 12);
+    queue.add(4, 2, 13);
+    List<Request> snapshot = queue.toList();
+    assertEquals("4->9", snapshot.get(0).toString());
+    assertEquals(12, snapshot.get(0).getArrivalTick());
+    assertEquals(-1, snapshot.get(0).getPickupTick());
+
+    Request peeked = queue.peekFirstAtFloor(4);
+    assertEquals("4->9", peeked.toString());
+    assertSame(peeked, queue.peekFirstAtFloor(4));
+    assertSame(peeked, queue.toList().get(0));
+    assertSame(peeked, queue.pollFirstAtFloor(4));
+    Request next = queue.pollFirstAtFloor(4);
+    assertEquals("4->2", next.toString());
+    assertEquals(13, next.getArrivalTick());
+  }
+
+  @Test
+  public void testArrivalTicksPastThirtyTwoBits() {
+    long early = (1L << 32) - 3;
+    queue.clear();
+    queue.add(1, 2, early);
+    queue.add(3, 4, early + 10);
+    queue.add(5, 6, (1L << 32) + 100);
+    List<Request> requests = queue.toList();
+    assertEquals(early, requests.get(0).getArrivalTick());
+    assertEquals(early + 10, requests.get(1).getArrivalTick());
+    assertEquals((1L << 32) + 100, requests.get(2).getArrivalTick());
+  }
+
+  @Test
+  public void testWriteAndReadPackedRequests() throws IOException {
+    RequestQueue packed = new RequestQueue(10);
+    packed.add(3, 8, 40);
+    packed.add(9, 0, 41);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    packed.writeTo(new DataOutputStream(bytes));
+
+    ByteArrayOutputStream objects = new ByteArrayOutputStream();
+    RequestQueue copy = new RequestQueue(10);
+    copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    copy.writeTo(new DataOutputStream(objects));
+    assertArrayEquals(bytes.toByteArray(), objects.toByteArray());
+    assertEquals(41, copy.peekFirstAtFloor(9).getArrivalTick());
+  }
+
+  @Test
+  public void testHoldsTheMostFloorsPackedRequestsAddress() {
+    RequestQueue tall = new RequestQueue(RequestQueue.MAX_FLOORS);
+    tall.add(RequestQueue.MAX_FLOORS - 1, 0, 5);
+    Request request = tall.pollFirstAtFloor(RequestQueue.MAX_FLOORS - 1);
+    assertEquals(RequestQueue.MAX_FLOORS - 1, request.getStartFloor());
+    assertEquals(0, request.getEndFloor());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectsMoreFloorsThanPackedRequestsAddress() {
+    new RequestQueue(RequestQueue.MAX_FLOORS + 1);
+  }
+}
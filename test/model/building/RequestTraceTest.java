@@ -0,0 +1,113 @@
+package model.building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import model.scanerzus.Request;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests recording and replaying binary request traces.
+ */
+public class RequestTraceTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTripAcrossWindows() throws IOException {
+    Path path = folder.newFile("trace.bin").toPath();
+    try (RequestTraceWriter writer = new RequestTraceWriter(path)) {
+      for (int i = 0; i < 10000; i++) {
+        writer.record(i / 3, i % 50, 50 + i % 7);
+      }
+      assertEquals(10000, writer.getCount());
+    }
+    assertEquals(8 + 10000 * 16, Files.size(path));
+    assertTrue(RequestTraceReader.isTrace(path));
+
+    // a small window makes the reader remap many times
+    try (RequestTraceReader reader = new RequestTraceReader(path, 7)) {
+      assertEquals(10000, reader.size());
+      for (int i = 0; i < 10000; i++) {
+        assertEquals(i / 3, reader.peekTick());
+        assertTrue(reader.next());
+        assertEquals(i / 3, reader.getTick());
+        assertEquals(i % 50, reader.getStartFloor());
+        assertEquals(50 + i % 7, reader.getEndFloor());
+      }
+      assertEquals(Long.MAX_VALUE, reader.peekTick());
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTicksMustNotDecrease() throws IOException {
+    try (RequestTraceWriter writer = new RequestTraceWriter(folder.newFile().toPath())) {
+      writer.record(5, 0, 1);
+      writer.record(4, 0, 1);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedTraceIsRejected() throws IOException {
+    Path path = folder.newFile().toPath();
+    try (RequestTraceWriter writer = new RequestTraceWriter(path)) {
+      writer.record(1, 0, 1);
+    }
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+    new RequestTraceReader(path).close();
+  }
+
+  @Test
+  public void testTextFileIsNotATrace() throws IOException {
+    Path path = folder.newFile().toPath();
+    Files.write(path, "0 1 2\n".getBytes(StandardCharsets.UTF_8));
+    assertFalse(RequestTraceReader.isTrace(path));
+  }
+
+  @Test
+  public void testReplayIsByteForByteReproducible() throws IOException {
+    Path recorded = folder.newFile("recorded.bin").toPath();
+    Path replayed = folder.newFile("replayed.bin").toPath();
+
+    Building original = new Building(20, 4, 5);
+    try (RequestTraceWriter writer = new RequestTraceWriter(recorded)) {
+      original.setTraceWriter(writer);
+      original.startElevatorSystem();
+      Random random = new Random(5);
+      for (int tick = 0; tick < 3000; tick++) {
+        if (random.nextInt(3) == 0) {
+          int from = random.nextInt(20);
+          original.addRequest(new Request(from, (from + 1 + random.nextInt(19)) % 20));
+        }
+        original.triggerElevatorStep();
+      }
+    }
+
+    Building replay = new Building(20, 4, 5);
+    try (RequestTraceReader reader = new RequestTraceReader(recorded);
+         RequestTraceWriter writer = new RequestTraceWriter(replayed)) {
+      replay.setTraceWriter(writer);
+      replay.startElevatorSystem();
+      for (int tick = 0; tick < 3000; tick++) {
+        reader.feed(replay, replay.getCurrentTick());
+        replay.triggerElevatorStep();
+      }
+    }
+
+    assertArrayEquals(Files.readAllBytes(recorded), Files.readAllBytes(replayed));
+    assertEquals(original.getElevatorSystemStatus().toString(),
+        replay.getElevatorSystemStatus().toString());
+  }
+}
@@ -0,0 +1,184 @@
+package model.elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.building.enums.Direction;
+import model.scanerzus.Request;
+import org.junit.Test;
+
+/**
+ * This class tests that the cars of an ElevatorFleet behave like Elevator objects.
+ */
+public class ElevatorFleetTest {
+
+  @Test
+  public void carsStartOutOfService() {
+    ElevatorFleet fleet = new ElevatorFleet(3, 10, 5);
+    assertEquals(3, fleet.size());
+    assertEquals(3, fleet.getCars().size());
+    for (int car = 0; car < 3; car++) {
+      Elevator elevator = new Elevator(car, 10, 5);
+      assertEquals(elevator.toString(), fleet.getCars().get(car).toString());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsTooFewFloors() {
+    new ElevatorFleet(3, 2, 5);
+  }
+
+  @Test
+  public void reportIsReusedWhileUnchanged() {
+    ElevatorInterface car = new ElevatorFleet(2, 10, 5).getCars().get(1);
+    car.start();
+    ElevatorReport report = car.getElevatorStatus();
+    assertSame(report, car.getElevatorStatus());
+    car.step();
+    assertEquals(report.getVersion() + 1, car.getElevatorStatus().getVersion());
+  }
+
+  @Test
+  public void matchesElevatorsOnOneWord() throws IOException {
+    assertMatchesElevators(20, 11);
+  }
+
+  @Test
+  public void matchesElevatorsOnSeveralWords() throws IOException {
+    assertMatchesElevators(150, 12);
+  }
+
+  /**
+   * Drives a fleet and the same number of Elevator objects through the same random
+   * operations and compares every car after each one.
+   *
+   * @param floors the number of floors.
+   * @param seed the seed of the operations.
+   * @throws IOException never, the state is written to memory.
+   */
+  private static void assertMatchesElevators(int floors, long seed) throws IOException {
+    final int cars = 5;
+    ElevatorFleet fleet = new ElevatorFleet(cars, floors, 4);
+    List<Elevator> elevators = new ArrayList<>();
+    for (int car = 0; car < cars; car++) {
+      elevators.add(new Elevator(car, floors, 4));
+      elevators.get(car).start();
+      fleet.getCars().get(car).start();
+    }
+    Random random = new Random(seed);
+    List<Request> fleetEvents = new ArrayList<>();
+    List<Request> objectEvents = new ArrayList<>();
+    for (int round = 0; round < 4000; round++) {
+      int car = random.nextInt(cars);
+      Elevator expected = elevators.get(car);
+      ElevatorInterface actual = fleet.getCars().get(car);
+      int operation = random.nextInt(100);
+      if (operation < 10) {
+        int from = random.nextInt(floors);
+        Request request = new Request(from, (from + 1 + random.nextInt(floors - 1)) % floors);
+        assertEquals(expected.addStopRequest(request), actual.addStopRequest(request));
+      } else if (operation < 15 && expected.isTakingRequests()
+          && (expected.getCurrentFloor() == 0 || expected.getCurrentFloor() == floors - 1)) {
+        List<Request> batch = new ArrayList<>();
+        for (int i = random.nextInt(4); i > 0; i--) {
+          int from = expected.getCurrentFloor() == 0 ? 0 : floors - 1;
+          int to = from == 0 ? 1 + random.nextInt(floors - 1) : random.nextInt(floors - 1);
+          batch.add(new Request(from, to));
+        }
+        expected.processRequests(batch);
+        actual.processRequests(batch);
+      } else if (operation < 16) {
+        expected.takeOutOfService();
+        actual.takeOutOfService();
+      } else if (operation < 18) {
+        expected.start();
+        actual.start();
+      } else if (operation < 30) {
+        int ticks = 1 + random.nextInt(Math.min(50, expected.getTicksToNextEvent()));
+        expected.advance(ticks);
+        actual.advance(ticks);
+      } else {
+        // the whole fleet steps together, as a model.building steps it
+        for (Elevator elevator : elevators) {
+          elevator.step();
+        }
+        fleet.step();
+      }
+
+      for (Elevator elevator : elevators) {
+        elevator.drainPassengerEvents(collector(objectEvents));
+      }
+      fleet.drainPassengerEvents(collector(fleetEvents));
+      assertEquals(objectEvents, fleetEvents);
+
+      for (int i = 0; i < cars; i++) {
+        assertSameCar(elevators.get(i), fleet.getCars().get(i));
+      }
+      int floor = random.nextInt(floors);
+      Direction direction = random.nextBoolean() ? Direction.UP : Direction.DOWN;
+      assertEquals(expected.getEstimatedTicksTo(floor, direction),
+          actual.getEstimatedTicksTo(floor, direction));
+    }
+  }
+
+  /**
+   * Compares the observable state of an Elevator and a car of a fleet.
+   *
+   * @param expected the Elevator.
+   * @param actual the car.
+   * @throws IOException never, the state is written to memory.
+   */
+  private static void assertSameCar(Elevator expected, ElevatorInterface actual)
+      throws IOException {
+    assertEquals(expected.getElevatorStatus(), actual.getElevatorStatus());
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getVersion(), actual.getVersion());
+    assertEquals(expected.getTicksToNextEvent(), actual.getTicksToNextEvent());
+    assertEquals(expected.getNextStop(), actual.getNextStop());
+    assertEquals(expected.getStopCount(), actual.getStopCount());
+    assertEquals(expected.getPassengerCount(), actual.getPassengerCount());
+    assertEquals(expected.isTakingRequests(), actual.isTakingRequests());
+    assertArrayEquals(expected.getFloorRequests(), actual.getFloorRequests());
+    assertArrayEquals(state(expected), state(actual));
+  }
+
+  /**
+   * Writes the state of a car to memory.
+   *
+   * @param elevator the car.
+   * @return the bytes written by writeState.
+   * @throws IOException never.
+   */
+  private static byte[] state(ElevatorInterface elevator) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    elevator.writeState(new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns a sink appending every event to a list.
+   *
+   * @param events the list.
+   * @return the sink.
+   */
+  private static PassengerEventSink collector(List<Request> events) {
+    return new PassengerEventSink() {
+      @Override
+      public void pickedUp(Request request) {
+        events.add(request);
+      }
+
+      @Override
+      public void droppedOff(Request request) {
+        events.add(request);
+      }
+    };
+  }
+}
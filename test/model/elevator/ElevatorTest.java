@@ -2,8 +2,15 @@ package model.elevator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import model.building.enums.Direction;
@@ -17,8 +24,6 @@ import org.junit.Test;
  * A JUnit test class for the ElevatorStatus class.
  */
 public class ElevatorTest {
-  private static Elevator elevatorTestStatic;
-  private static Elevator elevatorTestStatic2;
   List<Request> upTenRequests;
   List<Request> upTenRequestsNotTop;
   List<Request> downTenRequests;
@@ -32,13 +37,11 @@ public class ElevatorTest {
 
 
   /**
-   * Set up the stuff before all of the tests so we can do a static test.
+   * Set up the stuff before all of the tests.
    */
   @BeforeClass
   public static void setUpClass() {
     System.out.println("Testing Elevator class");
-    elevatorTestStatic = new Elevator(10, 5);
-    elevatorTestStatic2 = new Elevator(10, 5);
   }
 
   /**
@@ -99,13 +102,15 @@ public class ElevatorTest {
   }
 
   /**
-   * Test the constructor exceptions.
-   * Number of floors must be less than 30.
+   * Test the constructor for supertall buildings.
+   * There is no upper limit on the number of floors.
    */
-  @Test(expected = IllegalArgumentException.class)
-  public void elevatorConstructorThrowsExceptionForThirtyFloors() {
-    System.out.println("Testing: elevatorConstructorThrowsExceptionForThirtyFloors");
-    new Elevator(30, 2);
+  @Test
+  public void elevatorConstructorAcceptsSupertallBuilding() {
+    System.out.println("Testing: elevatorConstructorAcceptsSupertallBuilding");
+    Elevator elevator = new Elevator(250, 5);
+    assertEquals(250, elevator.getMaxFloor());
+    assertEquals(250, elevator.getFloorRequests().length);
   }
 
   /**
@@ -119,13 +124,13 @@ public class ElevatorTest {
   }
 
   /**
-   * Test the constructor exceptions.
-   * Occupancy must be less than or equal to 20
+   * Test the constructor for large cars.
+   * There is no upper limit on the occupancy.
    */
-  @Test(expected = IllegalArgumentException.class)
-  public void elevatorConstructorThrowsExceptionForMoreThan20Occupancy() {
-    System.out.println("Testing: elevatorConstructorThrowsExceptionForMoreThan20Occupancy");
-    new Elevator(10, 21);
+  @Test
+  public void elevatorConstructorAcceptsLargeOccupancy() {
+    System.out.println("Testing: elevatorConstructorAcceptsLargeOccupancy");
+    assertEquals(40, new Elevator(10, 40).getMaxOccupancy());
   }
 
 
@@ -161,15 +166,14 @@ public class ElevatorTest {
 
   /**
    * Test the constructor for model.elevator id.
+   * The id is chosen by the owner, the standalone constructor uses 0.
    */
   @Test
   public void elevatorId() {
     System.out.println("Testing: elevatorId");
 
-    assertEquals(0, elevatorTestStatic.getElevatorId());
-    assertEquals(1, elevatorTestStatic2.getElevatorId());
-
-
+    assertEquals(0, new Elevator(10, 5).getElevatorId());
+    assertEquals(7, new Elevator(7, 10, 5).getElevatorId());
   }
 
 
@@ -1048,4 +1052,261 @@ public class ElevatorTest {
 
   }
 
-}
\ No newline at end of file
+  /**
+   * Test the stop count and the next stop lookups.
+   */
+  @Test
+  public void nextStopInDirection() {
+    System.out.println("Testing: nextStopInDirection");
+    elevatorTenFloors10Capacity.start();
+    assertEquals(0, elevatorTenFloors10Capacity.getStopCount());
+    assertEquals(-1, elevatorTenFloors10Capacity.getNextStop());
+
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+    assertEquals(7, elevatorTenFloors10Capacity.getStopCount());
+    assertEquals(0, elevatorTenFloors10Capacity.getNextStop());
+
+    // open and close the door at the ground floor, then move up one floor
+    for (int i = 0; i < 5; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(1, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(6, elevatorTenFloors10Capacity.getStopCount());
+    assertEquals(1, elevatorTenFloors10Capacity.getNextStop());
+  }
+
+  /**
+   * Test that a report is an immutable snapshot that is reused while nothing changes.
+   */
+  @Test
+  public void elevatorReportIsVersionedSnapshot() {
+    System.out.println("Testing: elevatorReportIsVersionedSnapshot");
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.processRequests(upTenRequests);
+    ElevatorReport before = elevatorTenFloors10Capacity.getElevatorStatus();
+    assertSame(before, elevatorTenFloors10Capacity.getElevatorStatus());
+    assertEquals(elevatorTenFloors10Capacity.getVersion(), before.getVersion());
+
+    // opening the door at the ground floor clears its stop in the model.elevator only
+    elevatorTenFloors10Capacity.step();
+    assertTrue(before.hasFloorRequest(0));
+    assertTrue(before.isDoorClosed());
+
+    ElevatorReport after = elevatorTenFloors10Capacity.getElevatorStatus();
+    assertNotSame(before, after);
+    assertFalse(after.hasFloorRequest(0));
+    assertTrue(after.getVersion() > before.getVersion());
+  }
+
+  /**
+   * Test that an model.elevator parked out of service keeps its version.
+   */
+  @Test
+  public void parkedElevatorKeepsVersion() {
+    System.out.println("Testing: parkedElevatorKeepsVersion");
+    Elevator elevator = new Elevator(10, 5);
+    elevator.step();
+    long version = elevator.getVersion();
+    elevator.step();
+    elevator.step();
+    assertEquals(version, elevator.getVersion());
+  }
+
+  /**
+   * Test a full run through a supertall building with stops above floor 64,
+   * where the stops span several words of the packed stop set.
+   */
+  @Test
+  public void supertallElevatorRun() {
+    System.out.println("Testing: supertallElevatorRun");
+    Elevator elevator = new Elevator(200, 10);
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 70));
+    requests.add(new Request(130, 199));
+    elevator.processRequests(requests);
+    assertEquals(4, elevator.getStopCount());
+
+    // door at the ground floor, then straight up to floor 70
+    for (int i = 0; i < 4 + 70; i++) {
+      elevator.step();
+    }
+    assertEquals(70, elevator.getCurrentFloor());
+    assertEquals(70, elevator.getNextStop());
+    elevator.step();
+    assertFalse(elevator.isDoorClosed());
+    assertEquals(130, elevator.getNextStop());
+  }
+
+  /**
+   * Test the arrival estimate and adding requests to a moving model.elevator.
+   */
+  @Test
+  public void addStopRequestOnTheWay() {
+    System.out.println("Testing: addStopRequestOnTheWay");
+    Elevator elevator = new Elevator(10, 3);
+    elevator.start();
+    // waiting at the ground floor: the wait plus two floors, but not taken on the way
+    assertEquals(7, elevator.getEstimatedTicksTo(2, Direction.UP));
+    assertFalse(elevator.addStopRequest(new Request(2, 5)));
+
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 5));
+    elevator.processRequests(requests);
+    elevator.step();
+    assertFalse(elevator.isDoorClosed());
+
+    // the door closes in 3 steps, then 3 floors up
+    assertEquals(6, elevator.getEstimatedTicksTo(3, Direction.UP));
+    // one stop at floor 5 on the way to floor 7
+    assertEquals(14, elevator.getEstimatedTicksTo(7, Direction.UP));
+    assertEquals(-1, elevator.getEstimatedTicksTo(3, Direction.DOWN));
+    assertTrue(elevator.addStopRequest(new Request(3, 8)));
+    assertFalse(elevator.addStopRequest(new Request(2, 1)));
+
+    for (int i = 0; i < 6; i++) {
+      elevator.step();
+    }
+    assertEquals(3, elevator.getCurrentFloor());
+    assertEquals(3, elevator.getNextStop());
+    assertFalse(elevator.addStopRequest(new Request(2, 6)));
+
+    // the third request fills the car between floors 4 and 5
+    assertTrue(elevator.addStopRequest(new Request(4, 6)));
+    assertEquals(-1, elevator.getEstimatedTicksTo(4, Direction.UP));
+    assertFalse(elevator.addStopRequest(new Request(4, 5)));
+    assertFalse(elevator.addStopRequest(new Request(3, 9)));
+    assertEquals(5, elevator.getStopCount());
+
+    // the first passengers are off by floor 7, so there is room again
+    assertEquals(20, elevator.getEstimatedTicksTo(7, Direction.UP));
+    assertTrue(elevator.addStopRequest(new Request(7, 9)));
+    assertTrue(elevator.addStopRequest(new Request(6, 8)));
+    assertEquals(-1, elevator.getEstimatedTicksTo(7, Direction.UP));
+    assertEquals(7, elevator.getStopCount());
+  }
+
+  /**
+   * Test that the travel counters follow the passengers on board.
+   */
+  @Test
+  public void travelCountersFollowPassengers() {
+    System.out.println("Testing: travelCountersFollowPassengers");
+    Elevator elevator = new Elevator(10, 3);
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 4));
+    requests.add(new Request(0, 2));
+    elevator.processRequests(requests);
+    // the door opens and closes at the ground floor, then four floors up
+    while (elevator.getCurrentFloor() < 4) {
+      elevator.step();
+    }
+    assertEquals(4, elevator.getFloorsTravelled());
+    // two passengers for two floors, then one for two more
+    assertEquals(6, elevator.getPassengerFloors());
+    assertEquals(1, elevator.getPassengerCount());
+  }
+
+  /**
+   * Test that passengers are picked up and dropped off when the door opens.
+   */
+  @Test
+  public void passengerEvents() {
+    System.out.println("Testing: passengerEvents");
+    List<Request> pickedUp = new ArrayList<>();
+    List<Request> droppedOff = new ArrayList<>();
+    PassengerEventSink sink = new PassengerEventSink() {
+      @Override
+      public void pickedUp(Request request) {
+        pickedUp.add(request);
+      }
+
+      @Override
+      public void droppedOff(Request request) {
+        droppedOff.add(request);
+      }
+    };
+
+    Elevator elevator = new Elevator(10, 3);
+    elevator.start();
+    Request first = new Request(0, 2);
+    Request second = new Request(2, 4);
+    List<Request> requests = new ArrayList<>();
+    requests.add(first);
+    requests.add(second);
+    elevator.processRequests(requests);
+
+    elevator.step();
+    elevator.drainPassengerEvents(sink);
+    assertEquals(1, pickedUp.size());
+    assertSame(first, pickedUp.get(0));
+    assertEquals(1, elevator.getPassengerCount());
+
+    // door closes, up two floors, door opens at floor 2
+    for (int i = 0; i < 6; i++) {
+      elevator.step();
+      elevator.drainPassengerEvents(sink);
+    }
+    assertEquals(2, elevator.getCurrentFloor());
+    assertFalse(elevator.isDoorClosed());
+    assertEquals(1, droppedOff.size());
+    assertSame(first, droppedOff.get(0));
+    assertEquals(2, pickedUp.size());
+    assertSame(second, pickedUp.get(1));
+    assertEquals(1, elevator.getPassengerCount());
+
+    // events nobody drained are dropped at the next step
+    for (int i = 0; i < 6; i++) {
+      elevator.step();
+    }
+    assertFalse(elevator.isDoorClosed());
+    elevator.step();
+    elevator.drainPassengerEvents(sink);
+    assertEquals(1, droppedOff.size());
+    assertEquals(0, elevator.getPassengerCount());
+  }
+
+  /**
+   * Test that a restored model.elevator continues exactly like the original.
+   */
+  @Test
+  public void writeAndReadState() throws IOException {
+    System.out.println("Testing: writeAndReadState");
+    Elevator original = new Elevator(3, 70, 5);
+    original.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 66));
+    requests.add(new Request(2, 40));
+    original.processRequests(requests);
+    for (int i = 0; i < 12; i++) {
+      original.step();
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    original.writeState(new DataOutputStream(bytes));
+
+    Elevator restored = new Elevator(3, 70, 5);
+    restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    assertEquals(original.getElevatorStatus(), restored.getElevatorStatus());
+    assertEquals(original.getVersion(), restored.getVersion());
+    assertEquals(original.getPassengerCount(), restored.getPassengerCount());
+    for (int i = 0; i < 100; i++) {
+      original.step();
+      restored.step();
+      assertEquals(original.toString(), restored.toString());
+      assertEquals(original.getPassengerCount(), restored.getPassengerCount());
+    }
+  }
+
+  /**
+   * Test that a state cannot be restored into an model.elevator of another size.
+   */
+  @Test(expected = IOException.class)
+  public void readStateOfAnotherSize() throws IOException {
+    System.out.println("Testing: readStateOfAnotherSize");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new Elevator(10, 5).writeState(new DataOutputStream(bytes));
+    new Elevator(11, 5).readState(
+        new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+}
@@ -0,0 +1,111 @@
+package model.elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class tests the FloorBitSet helpers.
+ */
+public class FloorBitSetTest {
+
+  @Test
+  public void wordCount() {
+    assertEquals(1, FloorBitSet.wordCount(3));
+    assertEquals(1, FloorBitSet.wordCount(64));
+    assertEquals(2, FloorBitSet.wordCount(65));
+    assertEquals(4, FloorBitSet.wordCount(200));
+  }
+
+  @Test
+  public void setGetClear() {
+    long[] words = FloorBitSet.create(200);
+    assertTrue(FloorBitSet.isEmpty(words));
+    FloorBitSet.set(words, 0);
+    FloorBitSet.set(words, 63);
+    FloorBitSet.set(words, 64);
+    FloorBitSet.set(words, 199);
+    assertTrue(FloorBitSet.get(words, 63));
+    assertTrue(FloorBitSet.get(words, 64));
+    assertFalse(FloorBitSet.get(words, 65));
+    assertEquals(4, FloorBitSet.count(words));
+    FloorBitSet.clear(words, 63);
+    assertFalse(FloorBitSet.get(words, 63));
+    assertEquals(3, FloorBitSet.count(words));
+    FloorBitSet.clearAll(words);
+    assertTrue(FloorBitSet.isEmpty(words));
+  }
+
+  @Test
+  public void nextSetBit() {
+    long[] words = FloorBitSet.create(200);
+    assertEquals(-1, FloorBitSet.nextSetBit(words, 0));
+    FloorBitSet.set(words, 5);
+    FloorBitSet.set(words, 130);
+    assertEquals(5, FloorBitSet.nextSetBit(words, 0));
+    assertEquals(5, FloorBitSet.nextSetBit(words, 5));
+    assertEquals(130, FloorBitSet.nextSetBit(words, 6));
+    assertEquals(-1, FloorBitSet.nextSetBit(words, 131));
+    assertEquals(-1, FloorBitSet.nextSetBit(words, 500));
+  }
+
+  @Test
+  public void previousSetBit() {
+    long[] words = FloorBitSet.create(200);
+    assertEquals(-1, FloorBitSet.previousSetBit(words, 199));
+    FloorBitSet.set(words, 5);
+    FloorBitSet.set(words, 130);
+    assertEquals(130, FloorBitSet.previousSetBit(words, 199));
+    assertEquals(130, FloorBitSet.previousSetBit(words, 130));
+    assertEquals(5, FloorBitSet.previousSetBit(words, 129));
+    assertEquals(-1, FloorBitSet.previousSetBit(words, 4));
+    assertEquals(-1, FloorBitSet.previousSetBit(words, -1));
+  }
+
+  @Test
+  public void booleanArrayRoundTrip() {
+    boolean[] flags = {false, true, false, true, true};
+    long[] words = FloorBitSet.fromBooleanArray(flags);
+    assertEquals(3, FloorBitSet.count(words));
+    assertArrayEquals(flags, FloorBitSet.toBooleanArray(words, flags.length));
+  }
+
+  @Test
+  public void countRange() {
+    long[] words = FloorBitSet.create(200);
+    FloorBitSet.set(words, 3);
+    FloorBitSet.set(words, 63);
+    FloorBitSet.set(words, 64);
+    FloorBitSet.set(words, 150);
+    assertEquals(4, FloorBitSet.countRange(words, 0, 200));
+    assertEquals(2, FloorBitSet.countRange(words, 3, 64));
+    assertEquals(1, FloorBitSet.countRange(words, 4, 64));
+    assertEquals(2, FloorBitSet.countRange(words, 63, 150));
+    assertEquals(3, FloorBitSet.countRange(words, 63, 151));
+    assertEquals(0, FloorBitSet.countRange(words, 5, 5));
+  }
+
+  @Test
+  public void setsAtAnOffset() {
+    // three sets of 100 floors back to back, two words each
+    long[] words = new long[3 * FloorBitSet.wordCount(100)];
+    FloorBitSet.set(words, 2, 5);
+    FloorBitSet.set(words, 2, 70);
+    FloorBitSet.set(words, 2, 99);
+    assertTrue(FloorBitSet.get(words, 2, 70));
+    assertFalse(FloorBitSet.get(words, 0, 70));
+    assertFalse(FloorBitSet.get(words, 4, 70));
+    assertEquals(3, FloorBitSet.count(words, 2, 2));
+    assertEquals(0, FloorBitSet.count(words, 0, 2));
+    assertEquals(2, FloorBitSet.countRange(words, 2, 5, 99));
+    assertEquals(70, FloorBitSet.nextSetBit(words, 2, 2, 6));
+    assertEquals(-1, FloorBitSet.nextSetBit(words, 0, 2, 0));
+    assertEquals(5, FloorBitSet.previousSetBit(words, 2, 2, 69));
+    assertEquals(99, FloorBitSet.previousSetBit(words, 2, 2, 500));
+    FloorBitSet.clear(words, 2, 70);
+    assertEquals(99, FloorBitSet.nextSetBit(words, 2, 2, 6));
+  }
+}
@@ -0,0 +1,97 @@
+package model.scanerzus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class tests the TrafficGenerator class.
+ */
+public class TrafficGeneratorTest {
+
+  @Test
+  public void testSameSeedSameStream() {
+    TrafficGenerator first = new TrafficGenerator(TrafficProfile.LUNCH, 0.5, 20, 42);
+    TrafficGenerator second = new TrafficGenerator(TrafficProfile.LUNCH, 0.5, 20, 42);
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(first.peekTick(), second.peekTick());
+      first.next();
+      second.next();
+      assertEquals(first.getTick(), second.getTick());
+      assertEquals(first.getStartFloor(), second.getStartFloor());
+      assertEquals(first.getEndFloor(), second.getEndFloor());
+    }
+  }
+
+  @Test
+  public void testRequestsAreValidAndOrdered() {
+    for (TrafficProfile profile : TrafficProfile.values()) {
+      TrafficGenerator generator = new TrafficGenerator(profile, 3.0, 12, 7);
+      long previous = 0;
+      for (int i = 0; i < 10000; i++) {
+        generator.next();
+        assertTrue(generator.getTick() >= previous);
+        assertNotEquals(generator.getStartFloor(), generator.getEndFloor());
+        assertTrue(generator.getStartFloor() >= 0 && generator.getStartFloor() < 12);
+        assertTrue(generator.getEndFloor() >= 0 && generator.getEndFloor() < 12);
+        previous = generator.getTick();
+      }
+    }
+  }
+
+  @Test
+  public void testPoissonRate() {
+    TrafficGenerator generator = new TrafficGenerator(TrafficProfile.UNIFORM, 0.25, 10, 1);
+    int requests = 100000;
+    for (int i = 0; i < requests; i++) {
+      generator.next();
+    }
+    // 100000 arrivals at 0.25 per tick take about 400000 ticks
+    assertEquals(400000, generator.getTick(), 400000 * 0.02);
+  }
+
+  @Test
+  public void testUpPeakIsMostlyIncoming() {
+    TrafficGenerator generator = new TrafficGenerator(TrafficProfile.UP_PEAK, 1.0, 10, 3);
+    int incoming = 0;
+    int interfloor = 0;
+    for (int i = 0; i < 100000; i++) {
+      generator.next();
+      if (generator.getStartFloor() == 0) {
+        incoming++;
+      }
+      if (generator.getStartFloor() != 0 && generator.getEndFloor() != 0) {
+        interfloor++;
+      }
+    }
+    assertEquals(0.85, incoming / 100000.0, 0.01);
+    assertEquals(0.10, interfloor / 100000.0, 0.01);
+  }
+
+  @Test
+  public void testFloorWeights() {
+    double[] weights = {0, 1, 0, 3};
+    TrafficGenerator generator = new TrafficGenerator(TrafficProfile.UP_PEAK, 1.0, weights, 5);
+    int[] destinations = new int[4];
+    for (int i = 0; i < 100000; i++) {
+      generator.next();
+      if (generator.getStartFloor() == 0) {
+        destinations[generator.getEndFloor()]++;
+      }
+    }
+    assertEquals(0, destinations[2]);
+    assertEquals(3.0, destinations[3] / (double) destinations[1], 0.15);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooFewPopulatedFloors() {
+    new TrafficGenerator(TrafficProfile.INTERFLOOR, 1.0, new double[] {5, 1, 0}, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRateMustBePositive() {
+    new TrafficGenerator(TrafficProfile.UNIFORM, 0, 10, 1);
+  }
+}